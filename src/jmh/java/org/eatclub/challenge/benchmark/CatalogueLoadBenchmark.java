@@ -0,0 +1,114 @@
+package org.eatclub.challenge.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.eatclub.challenge.domain.restaurant.RestaurantCatalogueReader;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares loading the restaurant catalogue by buffering the whole response body
+ * against streaming it one restaurant at a time.
+ * <p>
+ * Run with {@code -prof gc} to compare the bytes allocated per load ({@code gc.alloc.rate.norm}).
+ * The buffered load holds the whole body and the whole catalogue at once,
+ * the streaming load never holds the body, and the discarding load holds at most one restaurant.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CatalogueLoadBenchmark {
+
+    @Param({"1000", "10000"})
+    private int restaurants;
+
+    @Param({"5"})
+    private int dealsPerRestaurant;
+
+    private byte[] catalogue;
+    private ObjectReader responseReader;
+    private RestaurantCatalogueReader catalogueReader;
+
+    @Setup
+    public void setUp() {
+        catalogue = SyntheticCatalogue.json(restaurants, dealsPerRestaurant);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        responseReader = objectMapper.readerFor(RestaurantResponse.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        catalogueReader = new RestaurantCatalogueReader(objectMapper);
+    }
+
+    /**
+     * Reads the whole body, hashes it, then deserialises the whole response object.
+     */
+    @Benchmark
+    public List<RestaurantDto> bufferedLoad() throws IOException {
+        byte[] body = new ByteArrayInputStream(catalogue).readAllBytes();
+        sha256().digest(body);
+
+        RestaurantResponse response = responseReader.readValue(body);
+        return List.copyOf(response.restaurants());
+    }
+
+    /**
+     * Streams and hashes the body, collecting the restaurants as they are parsed.
+     */
+    @Benchmark
+    public List<RestaurantDto> streamingLoad() throws IOException {
+        MessageDigest digest = sha256();
+        List<RestaurantDto> read = new ArrayList<>();
+
+        try (InputStream body = new DigestInputStream(new ByteArrayInputStream(catalogue), digest)) {
+            catalogueReader.read(body, read::add);
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+
+        digest.digest();
+        return read;
+    }
+
+    /**
+     * Streams the body, handing each restaurant to a consumer which does not retain it.
+     */
+    @Benchmark
+    public void streamingDiscard(Blackhole blackhole) throws IOException {
+        catalogueReader.read(new ByteArrayInputStream(catalogue), blackhole::consume);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
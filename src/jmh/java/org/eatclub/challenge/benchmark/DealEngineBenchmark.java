@@ -0,0 +1,252 @@
+package org.eatclub.challenge.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eatclub.challenge.common.MinuteOfDay;
+import org.eatclub.challenge.config.CatalogueProperties;
+import org.eatclub.challenge.domain.deal.Deal;
+import org.eatclub.challenge.domain.deal.DealFilter;
+import org.eatclub.challenge.domain.deal.DealService;
+import org.eatclub.challenge.domain.deal.DealSnapshot;
+import org.eatclub.challenge.domain.deal.DealSnapshotBuiltEvent;
+import org.eatclub.challenge.domain.deal.DealTimeline;
+import org.eatclub.challenge.domain.deal.Deals;
+import org.eatclub.challenge.domain.restaurant.RestaurantService;
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.eatclub.challenge.web.ActiveDealsJsonService;
+import org.eatclub.challenge.web.cache.ActiveDealsResponseCache;
+import org.eatclub.challenge.web.response.ActiveDealsJson;
+import org.eatclub.challenge.web.response.ActiveDealsResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the deal engine over a synthetic catalogue held in memory.
+ * <p>
+ * Run with {@code -prof gc} to report the bytes allocated per operation ({@code gc.alloc.rate.norm}).
+ * The active deals benchmarks cycle through every minute of the day, so they measure
+ * the average lookup over the day rather than a single, possibly empty, minute.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DealEngineBenchmark {
+
+    private static final DealFilter SUBURB_DINE_IN_FILTER = new DealFilter("Suburb 7", null, true, null, 40);
+
+    @Param({"100", "1000", "10000"})
+    private int restaurants;
+
+    @Param({"5"})
+    private int dealsPerRestaurant;
+
+    private List<RestaurantDto> catalogue;
+    private List<RestaurantDto> refreshedCatalogue;
+    private DealSnapshot snapshot;
+    private DealDto[] deals;
+    private RestaurantDto[] dealRestaurants;
+    private String[] timesOfDay;
+    private DealService dealService;
+    private ActiveDealsJsonService activeDealsJsonService;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        // Request logging would dominate the active deals lookups
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(DealService.class)).setLevel(Level.WARN);
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(ActiveDealsJsonService.class)).setLevel(Level.WARN);
+
+        catalogue = SyntheticCatalogue.restaurants(restaurants, dealsPerRestaurant);
+
+        List<DealDto> allDeals = new ArrayList<>();
+        List<RestaurantDto> allDealRestaurants = new ArrayList<>();
+        for (RestaurantDto restaurant : catalogue) {
+            for (DealDto deal : restaurant.deals()) {
+                allDeals.add(deal);
+                allDealRestaurants.add(restaurant);
+            }
+        }
+        deals = allDeals.toArray(DealDto[]::new);
+        dealRestaurants = allDealRestaurants.toArray(RestaurantDto[]::new);
+
+        timesOfDay = new String[24 * 60];
+        for (int minute = 0; minute < timesOfDay.length; minute++) {
+            timesOfDay[minute] = String.format("%02d:%02d", minute / 60, minute % 60);
+        }
+
+        // The refreshed catalogue changes the quantity left of the first deal of 1% of the restaurants
+        List<RestaurantDto> refreshed = new ArrayList<>(catalogue);
+        for (int index = 0; index < refreshed.size(); index += 100) {
+            refreshed.set(index, withFirstDealSoldOut(refreshed.get(index)));
+        }
+        refreshedCatalogue = List.copyOf(refreshed);
+        snapshot = DealSnapshot.of(catalogue);
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        dealService = new DealService(new FixedRestaurantService(catalogue, objectMapper), meterRegistry,
+                event -> activeDealsJsonService.onSnapshotBuilt((DealSnapshotBuiltEvent) event));
+        activeDealsJsonService = new ActiveDealsJsonService(dealService,
+                new ActiveDealsResponseCache(objectMapper, Long.MAX_VALUE), meterRegistry);
+    }
+
+    /**
+     * Builds the deals of the whole catalogue.
+     */
+    @Benchmark
+    public List<Deal> fromRestaurants() {
+        return Deals.fromRestaurants(catalogue);
+    }
+
+    /**
+     * Builds a single deal, cycling through the deals of the catalogue.
+     */
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Deal dealOf() {
+        int deal = nextIndex(deals.length);
+        return Deal.of(deals[deal], dealRestaurants[deal]);
+    }
+
+    /**
+     * Looks up and builds the active deals response, cycling through the minutes of the day.
+     */
+    @Benchmark
+    public ActiveDealsResponse getActiveDeals() {
+        return new ActiveDealsResponse.Builder()
+                .withActiveDeals(dealService.getActiveDealsAt(timesOfDay[nextIndex(timesOfDay.length)]))
+                .build();
+    }
+
+    /**
+     * Writes the serialised active deals response to a discarding stream, cycling through the minutes of the day.
+     * The response is written from the JSON fragments of the snapshot.
+     */
+    @Benchmark
+    public ActiveDealsJson getActiveDealsJson() throws IOException {
+        var json = activeDealsJsonService.getActiveDealsJson(timesOfDay[nextIndex(timesOfDay.length)]);
+        json.writeTo(OutputStream.nullOutputStream());
+        return json;
+    }
+
+    /**
+     * Renders every field of every active deal without the response cache, cycling through the minutes of the day.
+     */
+    @Benchmark
+    public byte[] getActiveDealsPageJson() {
+        return activeDealsJsonService.getActiveDealsPageJson(timesOfDay[nextIndex(timesOfDay.length)], DealFilter.NONE,
+                null, null, null);
+    }
+
+    /**
+     * Renders the first 20 active deals with 3 fields, as a mobile client would, cycling through the minutes of the day.
+     */
+    @Benchmark
+    public byte[] getActiveDealsProjectedPageJson() {
+        return activeDealsJsonService.getActiveDealsPageJson(timesOfDay[nextIndex(timesOfDay.length)], DealFilter.NONE,
+                20, null, "dealObjectId,discount,qtyLeft");
+    }
+
+    /**
+     * Looks up the active deals of a suburb with a dine-in discount of at least 40%, cycling through the minutes of the day.
+     */
+    @Benchmark
+    public List<Deal> getActiveDealsFiltered() {
+        return snapshot.getActiveDeals(nextIndex(MinuteOfDay.MINUTES_PER_DAY), SUBURB_DINE_IN_FILTER);
+    }
+
+    /**
+     * Baseline of {@link #getActiveDealsFiltered()}, filtering the active deals one by one.
+     */
+    @Benchmark
+    public List<Deal> getActiveDealsPostFiltered() {
+        return snapshot.getActiveDeals(nextIndex(MinuteOfDay.MINUTES_PER_DAY)).stream()
+                .filter(deal -> "Suburb 7".equals(deal.getDetails().getRestaurantSuburb())
+                        && "true".equals(deal.getDetails().getDineIn())
+                        && Integer.parseInt(deal.getDetails().getDiscount()) >= 40)
+                .toList();
+    }
+
+    /**
+     * Calculates the peak window of the whole catalogue.
+     */
+    @Benchmark
+    public DealTimeline.Window calculatePeakWindow() {
+        return dealService.calculatePeakWindow(catalogue);
+    }
+
+    /**
+     * Builds the snapshot of the refreshed catalogue from scratch.
+     */
+    @Benchmark
+    public DealSnapshot fullRebuild() {
+        return DealSnapshot.of(refreshedCatalogue);
+    }
+
+    /**
+     * Builds the snapshot of the refreshed catalogue from the snapshot of the catalogue.
+     */
+    @Benchmark
+    public DealSnapshot incrementalRebuild() {
+        return DealSnapshot.of(refreshedCatalogue, snapshot);
+    }
+
+    private static RestaurantDto withFirstDealSoldOut(RestaurantDto restaurant) {
+        List<DealDto> deals = new ArrayList<>(restaurant.deals());
+        DealDto deal = deals.getFirst();
+        deals.set(0, new DealDto(deal.objectId(), deal.discount(), deal.dineIn(), deal.lightning(), "0",
+                deal.open(), deal.close(), deal.start(), deal.end()));
+
+        return new RestaurantDto(restaurant.objectId(), restaurant.name(), restaurant.address1(), restaurant.suburb(),
+                restaurant.cuisines(), restaurant.imageLink(), restaurant.open(), restaurant.close(), List.copyOf(deals));
+    }
+
+    private int nextIndex(int length) {
+        int index = next < length ? next : 0;
+        next = index + 1;
+        return index;
+    }
+
+    /**
+     * Restaurant service serving a fixed catalogue, without calling the external API.
+     */
+    private static class FixedRestaurantService extends RestaurantService {
+
+        private final List<RestaurantDto> restaurants;
+
+        private FixedRestaurantService(List<RestaurantDto> restaurants, ObjectMapper objectMapper) {
+            super(new RestTemplate(), objectMapper, event -> {
+            }, new CatalogueProperties(1, List.of()), new SimpleMeterRegistry());
+            this.restaurants = restaurants;
+        }
+
+        @Override
+        public List<RestaurantDto> getRestaurants() {
+            return restaurants;
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package org.eatclub.challenge.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eatclub.challenge.domain.restaurant.RestaurantCatalogueReader;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic restaurant catalogues in the JSON format of the external API.
+ * Catalogues are reproducible: the same sizes always generate the same catalogue.
+ */
+public final class SyntheticCatalogue {
+
+    private static final long SEED = 42L;
+
+    private SyntheticCatalogue() {
+    }
+
+    /**
+     * Returns the UTF-8 JSON of a catalogue with the given number of restaurants and deals per restaurant.
+     */
+    public static byte[] json(int restaurants, int dealsPerRestaurant) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        StringBuilder json = new StringBuilder(restaurants * (300 + dealsPerRestaurant * 150));
+
+        json.append("{\"restaurants\":[");
+        for (int r = 0; r < restaurants; r++) {
+            if (r > 0) {
+                json.append(',');
+            }
+
+            int open = random.nextInt(6 * 60, 12 * 60);
+            int close = random.nextInt(17 * 60, 24 * 60);
+
+            json.append("{\"objectId\":\"R").append(r).append('"')
+                    .append(",\"name\":\"Restaurant ").append(r).append('"')
+                    .append(",\"address1\":\"").append(r).append(" Synthetic Street\"")
+                    .append(",\"suburb\":\"Suburb ").append(r % 50).append('"')
+                    .append(",\"cuisines\":[\"Cuisine ").append(r % 12).append("\"]")
+                    .append(",\"imageLink\":\"https://example.com/").append(r).append(".jpg\"")
+                    .append(",\"open\":\"").append(toTwelveHourClock(open)).append('"')
+                    .append(",\"close\":\"").append(toTwelveHourClock(close)).append('"')
+                    .append(",\"deals\":[");
+
+            for (int d = 0; d < dealsPerRestaurant; d++) {
+                if (d > 0) {
+                    json.append(',');
+                }
+
+                int start = random.nextInt(open, close);
+                int end = random.nextInt(start, close + 1);
+
+                json.append("{\"objectId\":\"R").append(r).append("-D").append(d).append('"')
+                        .append(",\"discount\":\"").append(10 + 5 * random.nextInt(9)).append('"')
+                        .append(",\"dineIn\":\"").append(random.nextBoolean()).append('"')
+                        .append(",\"lightning\":\"").append(random.nextBoolean()).append('"')
+                        .append(",\"qtyLeft\":\"").append(random.nextInt(10)).append('"')
+                        .append(",\"start\":\"").append(toTwelveHourClock(start)).append('"')
+                        .append(",\"end\":\"").append(toTwelveHourClock(end)).append("\"}");
+            }
+            json.append("]}");
+        }
+        json.append("]}");
+
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the restaurants of a catalogue with the given number of restaurants and deals per restaurant,
+     * deserialised the way the catalogue of the external API is.
+     */
+    public static List<RestaurantDto> restaurants(int restaurants, int dealsPerRestaurant) {
+        List<RestaurantDto> read = new ArrayList<>(restaurants);
+        try {
+            new RestaurantCatalogueReader(new ObjectMapper())
+                    .read(new ByteArrayInputStream(json(restaurants, dealsPerRestaurant)), read::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return List.copyOf(read);
+    }
+
+    /**
+     * Returns the UTF-8 JSON array of the given number of times in the "h:mma" format of the external API,
+     * spread over the day and mixing lower and upper case markers, e.g. ["3:05pm","11:40AM"].
+     */
+    public static byte[] timesJson(int times) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        StringBuilder json = new StringBuilder(times * 10);
+
+        json.append('[');
+        for (int t = 0; t < times; t++) {
+            if (t > 0) {
+                json.append(',');
+            }
+
+            String time = toTwelveHourClock(random.nextInt(24 * 60));
+            json.append('"').append(random.nextBoolean() ? time : time.toUpperCase()).append('"');
+        }
+        json.append(']');
+
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Formats the given minute of the day in the "h:mma" format of the external API, e.g. "3:05pm".
+     */
+    static String toTwelveHourClock(int minuteOfDay) {
+        int hour = (minuteOfDay / 60) % 24;
+        int minute = minuteOfDay % 60;
+        int twelveHour = hour % 12 == 0 ? 12 : hour % 12;
+
+        return twelveHour + ":" + (minute < 10 ? "0" : "") + minute + (hour < 12 ? "am" : "pm");
+    }
+
+}
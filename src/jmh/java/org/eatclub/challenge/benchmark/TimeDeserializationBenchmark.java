@@ -0,0 +1,82 @@
+package org.eatclub.challenge.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.jackson.CaseInsensitiveLocalTimeDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the deserialisation of the "h:mma" times of the external API
+ * through {@link CaseInsensitiveLocalTimeDeserializer}.
+ * <p>
+ * Run with {@code -prof gc} to report the bytes allocated per operation ({@code gc.alloc.rate.norm}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class TimeDeserializationBenchmark {
+
+    @Param({"1000"})
+    private int times;
+
+    private ObjectMapper objectMapper;
+    private CaseInsensitiveLocalTimeDeserializer deserializer;
+    private byte[] timesJson;
+    private byte[] dealsJson;
+    private ObjectReader dealsReader;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = new ObjectMapper();
+        deserializer = new CaseInsensitiveLocalTimeDeserializer();
+        timesJson = SyntheticCatalogue.timesJson(times);
+
+        // The deals of a catalogue with two times each, so that both benchmarks parse the same number of times
+        var restaurant = objectMapper.readTree(SyntheticCatalogue.json(1, times / 2)).get("restaurants").get(0);
+        dealsJson = objectMapper.writeValueAsBytes(restaurant.get("deals"));
+        dealsReader = objectMapper.readerFor(DealDto[].class);
+    }
+
+    /**
+     * Deserialises a JSON array of times, calling the deserializer directly on each string token.
+     */
+    @Benchmark
+    public void deserializeTimes(Blackhole blackhole) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(timesJson)) {
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() == JsonToken.VALUE_STRING) {
+                    blackhole.consume(deserializer.deserialize(parser, null));
+                }
+            }
+        }
+    }
+
+    /**
+     * Deserialises a JSON array of deals, each with a start and an end time.
+     */
+    @Benchmark
+    public DealDto[] deserializeDeals() throws IOException {
+        return dealsReader.readValue(dealsJson);
+    }
+
+}
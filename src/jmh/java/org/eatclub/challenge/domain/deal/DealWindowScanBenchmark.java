@@ -0,0 +1,120 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.benchmark.SyntheticCatalogue;
+import org.eatclub.challenge.common.MinuteOfDay;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the scans of the deal windows against filtering the deals with a stream, and against the interval index.
+ * <p>
+ * Lives in the deal package to reach the package-private scans. The vectorised scan needs the
+ * {@code jdk.incubator.vector} module, which the benchmark profile adds to the JVM.
+ * Every benchmark cycles through the minutes of the day.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class DealWindowScanBenchmark {
+
+    private static final int DEALS_PER_RESTAURANT = 5;
+
+    private static final int RANGE_MINUTES = 120;
+
+    @Param({"10000", "100000", "1000000"})
+    private int deals;
+
+    private List<Deal> dealList;
+    private int[] firstMinutes;
+    private int[] lastMinutes;
+    private DealWindowScan vectorScan;
+    private DealIntervalIndex intervalIndex;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        dealList = Deals.fromRestaurants(SyntheticCatalogue.restaurants(deals / DEALS_PER_RESTAURANT, DEALS_PER_RESTAURANT));
+
+        firstMinutes = new int[dealList.size()];
+        lastMinutes = new int[dealList.size()];
+        for (int ordinal = 0; ordinal < dealList.size(); ordinal++) {
+            firstMinutes[ordinal] = dealList.get(ordinal).getStartMinute();
+            lastMinutes[ordinal] = dealList.get(ordinal).getEndMinute();
+        }
+
+        vectorScan = DealWindowScan.vectorised();
+        if (vectorScan == null) {
+            throw new IllegalStateException("Add the jdk.incubator.vector module to the JVM.");
+        }
+        intervalIndex = DealIntervalIndex.of(firstMinutes, lastMinutes);
+    }
+
+    /**
+     * Baseline: filters every deal active at the minute with a stream.
+     */
+    @Benchmark
+    public List<Deal> streamFilter() {
+        int minute = nextMinute();
+        return dealList.stream().filter(deal -> deal.isActive(minute)).toList();
+    }
+
+    /**
+     * Scans the windows one by one for the deals active at the minute.
+     */
+    @Benchmark
+    public int[] scalarScan() {
+        int minute = nextMinute();
+        return DealWindowScan.SCALAR.find(firstMinutes, lastMinutes, minute, minute).toArray();
+    }
+
+    /**
+     * Scans the windows with the Vector API for the deals active at the minute.
+     */
+    @Benchmark
+    public int[] vectorScan() {
+        int minute = nextMinute();
+        return vectorScan.find(firstMinutes, lastMinutes, minute, minute).toArray();
+    }
+
+    /**
+     * Finds the deals overlapping a two-hour range in the interval index.
+     */
+    @Benchmark
+    public int[] intervalIndexRange() {
+        int from = nextMinute();
+        return intervalIndex.find(Math.min(from + RANGE_MINUTES, MinuteOfDay.MINUTES_PER_DAY - 1), from);
+    }
+
+    /**
+     * Scans the windows with the Vector API for the deals overlapping a two-hour range.
+     */
+    @Benchmark
+    public int[] vectorScanRange() {
+        int from = nextMinute();
+        return vectorScan.find(firstMinutes, lastMinutes,
+                Math.min(from + RANGE_MINUTES, MinuteOfDay.MINUTES_PER_DAY - 1), from).toArray();
+    }
+
+    private int nextMinute() {
+        int minute = next < MinuteOfDay.MINUTES_PER_DAY ? next : 0;
+        next = minute + 1;
+        return minute;
+    }
+
+}
@@ -0,0 +1,61 @@
+package org.eatclub.challenge.common;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+
+/**
+ * Utility class converting between LocalTime and its primitive minute of the day (0 to 1439) representation.
+ * Seconds and nanoseconds are truncated.
+ * <p>
+ * The 1440 LocalTime instances of the minutes of the day are created once and shared.
+ */
+public final class MinuteOfDay {
+
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final DateTimeFormatter HOURS_MINUTES_FORMATTER = DateTimeFormatter.ofPattern("HH:mm", Locale.ENGLISH);
+
+    private static final LocalTime[] TIMES = new LocalTime[MINUTES_PER_DAY];
+
+    static {
+        for (int minuteOfDay = 0; minuteOfDay < MINUTES_PER_DAY; minuteOfDay++) {
+            TIMES[minuteOfDay] = LocalTime.of(minuteOfDay / 60, minuteOfDay % 60);
+        }
+    }
+
+    private MinuteOfDay() {
+    }
+
+    /**
+     * Returns the minute of the day of the given time.
+     */
+    public static int of(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Returns the minute of the day of the given time of day.
+     *
+     * @param timeOfDay the given time of day in HH:mm format
+     * @throws IllegalArgumentException in case the time of day is not in HH:mm format
+     */
+    public static int parse(String timeOfDay) {
+        try {
+            return of(LocalTime.parse(timeOfDay, HOURS_MINUTES_FORMATTER));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid time format. Please use HH:mm format.", e);
+        }
+    }
+
+    /**
+     * Returns the shared time at the start of the given minute of the day.
+     *
+     * @throws ArrayIndexOutOfBoundsException in case the minute is not within the day
+     */
+    public static LocalTime toLocalTime(int minuteOfDay) {
+        return TIMES[minuteOfDay];
+    }
+
+}
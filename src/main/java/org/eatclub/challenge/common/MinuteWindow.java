@@ -0,0 +1,64 @@
+package org.eatclub.challenge.common;
+
+import java.time.LocalTime;
+
+/**
+ * Class modeling a time window by the minutes of the day of its start and end, both inclusive.
+ * Checking a window only compares primitives, so it is allocation free.
+ */
+public final class MinuteWindow {
+
+    private final int start;
+    private final int end;
+
+    private MinuteWindow(int start, int end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Static factory method to create a MinuteWindow instance
+     * @throws IllegalArgumentException in case of invalid time window dates
+     */
+    public static MinuteWindow of(LocalTime start, LocalTime end) {
+        requireValid(start, end);
+        return new MinuteWindow(MinuteOfDay.of(start), MinuteOfDay.of(end));
+    }
+
+    /**
+     * Checks if the given time falls within the window (start, end), without creating the window
+     *
+     * @throws IllegalArgumentException in case of invalid time window dates
+     */
+    public static boolean contains(LocalTime start, LocalTime end, LocalTime time) {
+        requireValid(start, end);
+        int minute = MinuteOfDay.of(time);
+        return MinuteOfDay.of(start) <= minute && minute <= MinuteOfDay.of(end);
+    }
+
+    /**
+     * Checks if the given minute of the day falls within the window
+     *
+     * @param minuteOfDay the given minute of the day to check
+     * @return true if the minute is within the window, false otherwise
+     */
+    public boolean contains(int minuteOfDay) {
+        return start <= minuteOfDay && minuteOfDay <= end;
+    }
+
+    public int getStart() {
+        return start;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    private static void requireValid(LocalTime start, LocalTime end) {
+        if (start == null || end == null || MinuteOfDay.of(start) > MinuteOfDay.of(end)) {
+            throw new IllegalArgumentException("Invalid time window (" + start + ", " + end + "): "
+                    + "start must be before or equal to end, and neither can be null.");
+        }
+    }
+
+}
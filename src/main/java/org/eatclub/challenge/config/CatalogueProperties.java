@@ -0,0 +1,31 @@
+package org.eatclub.challenge.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings of the restaurant catalogue sources.
+ *
+ * @param fetchConcurrency the maximum number of sources fetched at the same time
+ * @param sources          the catalogue sources, merged in order. The EatClub feed is used when none is configured
+ */
+@ConfigurationProperties("eatclub.catalogue")
+public record CatalogueProperties(
+        @DefaultValue("4") int fetchConcurrency,
+        @DefaultValue List<Source> sources
+) {
+
+    /**
+     * A catalogue source.
+     *
+     * @param name         the name of the source, e.g. its region
+     * @param url          the URL of the catalogue JSON
+     * @param maxStaleness how long the last catalogue fetched from the source is kept while the source keeps failing
+     */
+    public record Source(String name, String url, @DefaultValue("1h") Duration maxStaleness) {
+    }
+
+}
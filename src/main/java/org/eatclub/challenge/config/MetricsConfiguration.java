@@ -0,0 +1,119 @@
+package org.eatclub.challenge.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.eatclub.challenge.domain.deal.DealLogger;
+import org.eatclub.challenge.domain.deal.DealService;
+import org.eatclub.challenge.domain.restaurant.CatalogueRefreshCounters;
+import org.eatclub.challenge.domain.restaurant.CatalogueSourceStatus;
+import org.eatclub.challenge.domain.restaurant.RestaurantService;
+import org.eatclub.challenge.web.cache.ActiveDealsResponseCache;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Meters reading the counters and state already kept by the services, exposed at {@code /actuator/prometheus}.
+ * The timers of the fetch, build and query stages are recorded by the services themselves.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * Catalogue refresh outcomes, and the age, staleness and size of the catalogue of each source.
+     */
+    @Bean
+    public MeterBinder catalogueMeters(RestaurantService restaurantService) {
+        Clock clock = Clock.systemUTC();
+
+        return registry -> {
+            CatalogueRefreshCounters counters = restaurantService.getRefreshCounters();
+            refreshCounter("not.modified", counters, CatalogueRefreshCounters::getNotModified).register(registry);
+            refreshCounter("unchanged", counters, CatalogueRefreshCounters::getUnchangedContent).register(registry);
+            refreshCounter("rebuilt", counters, CatalogueRefreshCounters::getRebuilds).register(registry);
+
+            var statuses = restaurantService.getSourceStatuses();
+            for (int index = 0; index < statuses.size(); index++) {
+                int source = index;
+                String name = statuses.get(source).name();
+
+                TimeGauge.builder("eatclub.catalogue.age", restaurantService, TimeUnit.SECONDS,
+                                service -> ageSeconds(service.getSourceStatuses().get(source), clock))
+                        .description("Time since the last successful fetch of the source")
+                        .tag("source", name)
+                        .register(registry);
+                Gauge.builder("eatclub.catalogue.stale", restaurantService,
+                                service -> service.getSourceStatuses().get(source).stale() ? 1 : 0)
+                        .description("1 if the catalogue of the source is older than its maximum staleness")
+                        .tag("source", name)
+                        .register(registry);
+                Gauge.builder("eatclub.catalogue.restaurants", restaurantService,
+                                service -> service.getSourceStatuses().get(source).restaurants())
+                        .description("Number of restaurants the source contributes to the catalogue")
+                        .tag("source", name)
+                        .register(registry);
+            }
+        };
+    }
+
+    /**
+     * Size of the deal snapshot, invalid deal time fallbacks, and the active deals response cache.
+     */
+    @Bean
+    public MeterBinder dealMeters(DealService dealService, DealLogger dealLogger,
+                                  ActiveDealsResponseCache responseCache) {
+        return registry -> {
+            Gauge.builder("eatclub.deals.snapshot.deals", dealService,
+                            service -> service.getLatestSnapshot().getDeals().size())
+                    .description("Number of deals of the current snapshot")
+                    .register(registry);
+
+            FunctionCounter.builder("eatclub.deals.invalid.time.fallbacks", dealLogger,
+                            DealLogger::getInvalidStartTimes)
+                    .description("Invalid deal times logged, each issue once while it remains in the catalogue")
+                    .tag("bound", "start")
+                    .register(registry);
+            FunctionCounter.builder("eatclub.deals.invalid.time.fallbacks", dealLogger,
+                            DealLogger::getInvalidEndTimes)
+                    .description("Invalid deal times logged, each issue once while it remains in the catalogue")
+                    .tag("bound", "end")
+                    .register(registry);
+
+            cacheCounter("hit", responseCache, ActiveDealsResponseCache::getHits).register(registry);
+            cacheCounter("miss", responseCache, ActiveDealsResponseCache::getMisses).register(registry);
+            FunctionCounter.builder("eatclub.deals.response.cache.evictions", responseCache,
+                            ActiveDealsResponseCache::getEvictions)
+                    .register(registry);
+            Gauge.builder("eatclub.deals.response.cache.size", responseCache, ActiveDealsResponseCache::getCachedBytes)
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+
+    private static FunctionCounter.Builder<CatalogueRefreshCounters> refreshCounter(
+            String outcome, CatalogueRefreshCounters counters, ToDoubleFunction<CatalogueRefreshCounters> count) {
+        return FunctionCounter.builder("eatclub.catalogue.refreshes", counters, count)
+                .description("Catalogue source fetches by outcome")
+                .tag("outcome", outcome);
+    }
+
+    private static FunctionCounter.Builder<ActiveDealsResponseCache> cacheCounter(
+            String result, ActiveDealsResponseCache responseCache, ToDoubleFunction<ActiveDealsResponseCache> count) {
+        return FunctionCounter.builder("eatclub.deals.response.cache.requests", responseCache, count)
+                .description("Active deals response cache lookups by result")
+                .tag("result", result);
+    }
+
+    private static double ageSeconds(CatalogueSourceStatus status, Clock clock) {
+        return status.lastSuccess() == null
+                ? Double.NaN
+                : Duration.between(status.lastSuccess(), clock.instant()).toMillis() / 1000.0;
+    }
+
+}
@@ -3,16 +3,83 @@ package org.eatclub.challenge.config;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.lang.Nullable;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
+@EnableConfigurationProperties({UpstreamProperties.class, CatalogueProperties.class})
 public class RestConfiguration {
 
+    /**
+     * Executor of the tasks of the HTTP client when virtual threads are enabled ({@code spring.threads.virtual.enabled}),
+     * closed with the context since the client does not close the executors it is given.
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public ExecutorService upstreamHttpExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    /**
+     * HTTP client of the external API. The JDK client pools its connections and, when virtual threads are enabled,
+     * runs its tasks on virtual threads.
+     */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public HttpClient upstreamHttpClient(UpstreamProperties upstream,
+                                         @Qualifier("upstreamHttpExecutor") @Nullable ExecutorService upstreamHttpExecutor) {
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .connectTimeout(upstream.connectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL);
+
+        if (upstreamHttpExecutor != null) {
+            builder.executor(upstreamHttpExecutor);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * RestTemplate of the external API, bounded by the read timeout so that a slow upstream cannot hold a thread.
+     */
+    @Bean
+    public RestTemplate restTemplate(HttpClient upstreamHttpClient, UpstreamProperties upstream) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(upstreamHttpClient);
+        requestFactory.setReadTimeout(upstream.readTimeout());
+
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(RestConfiguration::reportTimeoutAsIOException);
+        return restTemplate;
+    }
+
+    /**
+     * The request factory enforces the read timeout by cancelling the pending response,
+     * and the cancellation can surface unwrapped instead of as an {@link HttpTimeoutException}.
+     * Reporting it as an I/O error lets RestTemplate raise it as any other upstream failure.
+     */
+    private static ClientHttpResponse reportTimeoutAsIOException(HttpRequest request, byte[] body,
+                                                                 ClientHttpRequestExecution execution) throws IOException {
+        try {
+            return execution.execute(request, body);
+        } catch (CancellationException e) {
+            throw new HttpTimeoutException("Request to " + request.getURI() + " timed out");
+        }
     }
 
     @Bean
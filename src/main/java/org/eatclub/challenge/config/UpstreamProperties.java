@@ -0,0 +1,19 @@
+package org.eatclub.challenge.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings of the HTTP client calling the external restaurant API.
+ *
+ * @param connectTimeout the maximum time to establish a connection
+ * @param readTimeout    the maximum time to wait for the response
+ */
+@ConfigurationProperties("eatclub.upstream")
+public record UpstreamProperties(
+        @DefaultValue("2s") Duration connectTimeout,
+        @DefaultValue("5s") Duration readTimeout
+) {
+}
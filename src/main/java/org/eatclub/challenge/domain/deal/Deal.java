@@ -1,12 +1,14 @@
 package org.eatclub.challenge.domain.deal;
 
-import org.eatclub.challenge.common.LocalTimeWindow;
+import org.eatclub.challenge.common.MinuteOfDay;
+import org.eatclub.challenge.common.MinuteWindow;
 import org.eatclub.challenge.domain.restaurant.dto.DealDto;
 import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalTime;
+import java.util.function.Consumer;
 
 /**
  * Represents a deal with a start and end time.
@@ -18,37 +20,58 @@ public class Deal {
 
     private static final DealLogger DEAL_LOGGER = new DealLogger();
 
-    private final LocalTimeWindow window;
+    private final MinuteWindow window;
     private final DealDetails details;
 
-    private Deal(LocalTimeWindow window, DealDetails details) {
+    private Deal(MinuteWindow window, DealDetails details) {
         this.window = window;
         this.details = details;
     }
 
     /**
      * Static factory method to create a Deal instance from DealDto and RestaurantDto.
+     * Validation issues are logged right away by the {@link DealLogger}.
      */
     public static Deal of(DealDto dealDto, RestaurantDto restaurantDto) {
-        LocalTime start = getDealStart(dealDto, restaurantDto);
-        LocalTime end = getDealEnd(dealDto, restaurantDto);
-
+        var window = windowOf(dealDto, restaurantDto, DEAL_LOGGER::log);
         DealDetails metadata = DealDetails.of(dealDto, restaurantDto);
-        var window = LocalTimeWindow.of(start, end);
 
         return new Deal(window, metadata);
     }
 
-    private static LocalTime getDealStart(DealDto dealDto, RestaurantDto restaurantDto) {
+    /**
+     * Static factory method to create a Deal instance whose details are already stored in a {@link DealTable}.
+     *
+     * @param issues receives the validation issues of the deal
+     */
+    static Deal of(DealDto dealDto, RestaurantDto restaurantDto, DealDetails details,
+                   Consumer<DealValidationIssue> issues) {
+        return new Deal(windowOf(dealDto, restaurantDto, issues), details);
+    }
+
+    /**
+     * Returns the active window of the given deal, falling back to the restaurant hours for invalid deal times.
+     *
+     * @param issues receives the validation issues of the deal
+     * @throws IllegalArgumentException in case the window is invalid (e.g. invalid restaurant hours)
+     */
+    static MinuteWindow windowOf(DealDto dealDto, RestaurantDto restaurantDto, Consumer<DealValidationIssue> issues) {
+        LocalTime start = getDealStart(dealDto, restaurantDto, issues);
+        LocalTime end = getDealEnd(dealDto, restaurantDto, issues);
+
+        return MinuteWindow.of(start, end);
+    }
+
+    private static LocalTime getDealStart(DealDto dealDto, RestaurantDto restaurantDto,
+                                          Consumer<DealValidationIssue> issues) {
         LocalTime restaurantOpen = restaurantDto.open();
         LocalTime restaurantClose = restaurantDto.close();
 
         // Prefer start if present and within restaurant hours
         if (dealDto.start() != null) {
             var dealStart = dealDto.start();
-            var dealWindow = LocalTimeWindow.of(restaurantOpen, restaurantClose);
 
-            if (dealWindow.contains(dealStart)) {
+            if (MinuteWindow.contains(restaurantOpen, restaurantClose, dealStart)) {
                 return dealStart;
             }
         }
@@ -61,20 +84,21 @@ public class Deal {
         }
 
         // Fallback: no deal time info, use restaurant open
-        DEAL_LOGGER.logInvalidStartTime(dealDto.objectId(), restaurantOpen.toString());
+        issues.accept(new DealValidationIssue(restaurantDto.objectId(), dealDto.objectId(),
+                DealValidationIssue.Type.INVALID_START_TIME, restaurantOpen.toString()));
         return restaurantOpen;
     }
 
-    private static LocalTime getDealEnd(DealDto dealDto, RestaurantDto restaurantDto) {
+    private static LocalTime getDealEnd(DealDto dealDto, RestaurantDto restaurantDto,
+                                        Consumer<DealValidationIssue> issues) {
         LocalTime restaurantOpen = restaurantDto.open();
         LocalTime restaurantClose = restaurantDto.close();
 
         // Prefer deal end if present and within restaurant hours
         if (dealDto.end() != null) {
             var dealEnd = dealDto.end();
-            var dealWindow = LocalTimeWindow.of(restaurantOpen, restaurantClose);
 
-            if (dealWindow.contains(dealEnd)) {
+            if (MinuteWindow.contains(restaurantOpen, restaurantClose, dealEnd)) {
                 return dealEnd;
             }
 
@@ -90,7 +114,8 @@ public class Deal {
         }
 
         // Fallback: no deal end info, use restaurant close
-        DEAL_LOGGER.logInvalidEndTime(dealDto.objectId(), restaurantClose.toString());
+        issues.accept(new DealValidationIssue(restaurantDto.objectId(), dealDto.objectId(),
+                DealValidationIssue.Type.INVALID_END_TIME, restaurantClose.toString()));
         return restaurantClose;
     }
 
@@ -98,7 +123,14 @@ public class Deal {
      * Returns true if the deal is active at the given time.
      */
     public boolean isActive(LocalTime time) {
-        return window.contains(time);
+        return isActive(MinuteOfDay.of(time));
+    }
+
+    /**
+     * Returns true if the deal is active at the given minute of the day.
+     */
+    public boolean isActive(int minuteOfDay) {
+        return window.contains(minuteOfDay);
     }
 
     public DealDetails getDetails() {
@@ -106,11 +138,19 @@ public class Deal {
     }
 
     public LocalTime getStart() {
-        return window.getStart();
+        return MinuteOfDay.toLocalTime(window.getStart());
     }
 
     public LocalTime getEnd() {
+        return MinuteOfDay.toLocalTime(window.getEnd());
+    }
+
+    public int getStartMinute() {
+        return window.getStart();
+    }
+
+    public int getEndMinute() {
         return window.getEnd();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,263 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable secondary indexes of the deals of a snapshot by attribute, answering {@link DealFilter} queries.
+ * <p>
+ * Each suburb, cuisine and flag value maps to the {@link DealBitmap} of its deals, and the deals are sorted by
+ * discount, so the deals with at least a discount are a suffix of that order. A filter intersects the bitmaps of its
+ * criteria, the smallest first, and checks the discount of the matching deals, unless the deals with at least the
+ * discount are fewer, in which case their suffix is the first bitmap. It never visits the deals of the snapshot
+ * one by one.
+ * <p>
+ * Suburbs and cuisines are matched case-insensitively. Deals whose discount is not a whole number
+ * never match a minimum discount.
+ */
+class DealAttributeIndex {
+
+    private static final int NO_DISCOUNT = Integer.MIN_VALUE;
+
+    private final DealBitmap none;
+    private final Map<String, DealBitmap> bySuburb;
+    private final Map<String, DealBitmap> byCuisine;
+    private final Map<Boolean, DealBitmap> byDineIn;
+    private final Map<Boolean, DealBitmap> byLightning;
+
+    // the discount of each deal, and the deals with a discount in ascending order of discount, with their discounts
+    private final int[] discountOf;
+    private final int[] byDiscount;
+    private final int[] sortedDiscounts;
+
+    private DealAttributeIndex(DealBitmap none, Map<String, DealBitmap> bySuburb, Map<String, DealBitmap> byCuisine,
+                               Map<Boolean, DealBitmap> byDineIn, Map<Boolean, DealBitmap> byLightning,
+                               int[] discountOf, int[] byDiscount, int[] sortedDiscounts) {
+        this.none = none;
+        this.bySuburb = bySuburb;
+        this.byCuisine = byCuisine;
+        this.byDineIn = byDineIn;
+        this.byLightning = byLightning;
+        this.discountOf = discountOf;
+        this.byDiscount = byDiscount;
+        this.sortedDiscounts = sortedDiscounts;
+    }
+
+    /**
+     * Static factory method to create the indexes of the given deals.
+     *
+     * @param restaurants           the restaurants of the deals
+     * @param restaurantDealOffsets the ordinal of the first deal of each restaurant, followed by the number of deals
+     * @param deals                 the deals, in ordinal order
+     */
+    static DealAttributeIndex of(List<RestaurantDto> restaurants, int[] restaurantDealOffsets, List<Deal> deals) {
+        int universe = deals.size();
+
+        // Restaurant attributes cover the contiguous ordinals of the restaurant deals
+        Map<String, DealBitmap.Builder> suburbs = new HashMap<>();
+        Map<String, DealBitmap.Builder> cuisines = new HashMap<>();
+        for (int index = 0; index < restaurants.size(); index++) {
+            RestaurantDto restaurant = restaurants.get(index);
+            int from = restaurantDealOffsets[index];
+            int to = restaurantDealOffsets[index + 1];
+
+            if (restaurant.suburb() != null) {
+                suburbs.computeIfAbsent(key(restaurant.suburb()), suburb -> new DealBitmap.Builder(universe))
+                        .addRange(from, to);
+            }
+            if (restaurant.cuisines() != null) {
+                // a cuisine listed twice, in any case, must not add the deals twice
+                Set<String> cuisineKeys = new HashSet<>();
+                for (String cuisine : restaurant.cuisines()) {
+                    if (cuisine != null) {
+                        cuisineKeys.add(key(cuisine));
+                    }
+                }
+                for (String cuisineKey : cuisineKeys) {
+                    cuisines.computeIfAbsent(cuisineKey, c -> new DealBitmap.Builder(universe))
+                            .addRange(from, to);
+                }
+            }
+        }
+
+        // Deal attributes
+        Map<Boolean, DealBitmap.Builder> dineIns = Map.of(
+                true, new DealBitmap.Builder(universe), false, new DealBitmap.Builder(universe));
+        Map<Boolean, DealBitmap.Builder> lightnings = Map.of(
+                true, new DealBitmap.Builder(universe), false, new DealBitmap.Builder(universe));
+        int[] discountOf = new int[universe];
+        long[] discountOrdinals = new long[universe];
+        int discounted = 0;
+        for (int ordinal = 0; ordinal < universe; ordinal++) {
+            DealDetails details = deals.get(ordinal).getDetails();
+
+            addFlag(dineIns, details.getDineIn(), ordinal);
+            addFlag(lightnings, details.getLightning(), ordinal);
+
+            Integer discount = parseDiscount(details.getDiscount());
+            discountOf[ordinal] = discount != null ? discount : NO_DISCOUNT;
+            if (discountOf[ordinal] != NO_DISCOUNT) {
+                // sorts by discount, then by ordinal
+                discountOrdinals[discounted++] = ((long) discountOf[ordinal] << 32) | ordinal;
+            }
+        }
+
+        Arrays.sort(discountOrdinals, 0, discounted);
+        int[] byDiscount = new int[discounted];
+        int[] sortedDiscounts = new int[discounted];
+        for (int i = 0; i < discounted; i++) {
+            byDiscount[i] = (int) discountOrdinals[i];
+            sortedDiscounts[i] = (int) (discountOrdinals[i] >> 32);
+        }
+
+        return new DealAttributeIndex(DealBitmap.empty(universe), build(suburbs), build(cuisines),
+                build(dineIns), build(lightnings), discountOf, byDiscount, sortedDiscounts);
+    }
+
+    /**
+     * Returns true if a deal of the given restaurant, with the given attributes, matches every criterion
+     * of the given filter, as the index would. Used where no index is built.
+     */
+    static boolean matches(DealFilter filter, RestaurantDto restaurant, String dineIn, String lightning,
+                           String discount) {
+        if (filter.suburb() != null
+                && (restaurant.suburb() == null || !key(restaurant.suburb()).equals(key(filter.suburb())))) {
+            return false;
+        }
+        if (filter.cuisine() != null && !hasCuisine(restaurant, key(filter.cuisine()))) {
+            return false;
+        }
+        if (filter.dineIn() != null && !filter.dineIn().toString().equalsIgnoreCase(dineIn)) {
+            return false;
+        }
+        if (filter.lightning() != null && !filter.lightning().toString().equalsIgnoreCase(lightning)) {
+            return false;
+        }
+        if (filter.minDiscount() != null) {
+            Integer dealDiscount = parseDiscount(discount);
+            return dealDiscount != null && dealDiscount >= filter.minDiscount();
+        }
+        return true;
+    }
+
+    private static boolean hasCuisine(RestaurantDto restaurant, String cuisineKey) {
+        if (restaurant.cuisines() == null) {
+            return false;
+        }
+
+        for (String cuisine : restaurant.cuisines()) {
+            if (cuisine != null && key(cuisine).equals(cuisineKey)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addFlag(Map<Boolean, DealBitmap.Builder> flags, String value, int ordinal) {
+        if ("true".equalsIgnoreCase(value)) {
+            flags.get(true).add(ordinal);
+        } else if ("false".equalsIgnoreCase(value)) {
+            flags.get(false).add(ordinal);
+        }
+    }
+
+    private static Integer parseDiscount(String discount) {
+        if (discount == null) {
+            return null;
+        }
+
+        try {
+            return Integer.valueOf(discount.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static <K> Map<K, DealBitmap> build(Map<K, DealBitmap.Builder> builders) {
+        Map<K, DealBitmap> bitmaps = new HashMap<>();
+        builders.forEach((key, builder) -> bitmaps.put(key, builder.build()));
+        return Map.copyOf(bitmaps);
+    }
+
+    /**
+     * Returns the key a suburb or cuisine is matched by.
+     */
+    static String key(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the deals matching every criterion of the given filter.
+     *
+     * @throws IllegalArgumentException in case the filter has no criterion
+     */
+    DealBitmap find(DealFilter filter) {
+        if (filter.isEmpty()) {
+            throw new IllegalArgumentException("The filter must have at least one criterion.");
+        }
+
+        List<DealBitmap> criteria = new ArrayList<>();
+        if (filter.suburb() != null) {
+            criteria.add(bySuburb.getOrDefault(key(filter.suburb()), none));
+        }
+        if (filter.cuisine() != null) {
+            criteria.add(byCuisine.getOrDefault(key(filter.cuisine()), none));
+        }
+        if (filter.dineIn() != null) {
+            criteria.add(byDineIn.get(filter.dineIn()));
+        }
+        if (filter.lightning() != null) {
+            criteria.add(byLightning.get(filter.lightning()));
+        }
+
+        criteria.sort(Comparator.comparingInt(DealBitmap::cardinality));
+
+        // the deals with at least the discount are intersected first if they are the fewest, and checked last otherwise
+        Integer minDiscount = filter.minDiscount();
+        if (minDiscount != null) {
+            int from = firstAtLeast(minDiscount);
+            if (criteria.isEmpty() || byDiscount.length - from <= criteria.getFirst().cardinality()) {
+                criteria.addFirst(DealBitmap.ofUnsorted(discountOf.length, byDiscount, from, byDiscount.length));
+                minDiscount = null;
+            }
+        }
+
+        DealBitmap matching = criteria.getFirst();
+        for (int i = 1; i < criteria.size() && !matching.isEmpty(); i++) {
+            matching = matching.and(criteria.get(i));
+        }
+
+        if (minDiscount != null && !matching.isEmpty()) {
+            int min = minDiscount;
+            matching = matching.filter(ordinal -> discountOf[ordinal] != NO_DISCOUNT && discountOf[ordinal] >= min);
+        }
+        return matching;
+    }
+
+    /**
+     * Returns the index in the discount order of the first deal with at least the given discount.
+     */
+    private int firstAtLeast(int minDiscount) {
+        int low = 0;
+        int high = sortedDiscounts.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sortedDiscounts[middle] < minDiscount) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+}
@@ -0,0 +1,259 @@
+package org.eatclub.challenge.domain.deal;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable set of deal ordinals, compressed by choosing its representation from its density.
+ * <p>
+ * Sparse sets are held as a sorted array of ordinals (4 bytes per deal), and dense sets as a bitmap over all the
+ * ordinals of the snapshot (1 bit per deal of the snapshot), whichever is smaller. Intersections merge two arrays,
+ * probe the bitmap with the array, or AND the words of two bitmaps, so they cost in proportion to the cardinality
+ * of the arrays or to deals / 64 words, rather than to the deals.
+ */
+final class DealBitmap {
+
+    private static final int[] NO_ORDINALS = new int[0];
+
+    /**
+     * The array takes less memory than the bitmap below one deal in 32.
+     */
+    private static final int SPARSE_RATIO = 32;
+
+    private final int universe;
+    private final int[] ordinals;
+    private final long[] words;
+    private final int cardinality;
+
+    private DealBitmap(int universe, int[] ordinals, long[] words, int cardinality) {
+        this.universe = universe;
+        this.ordinals = ordinals;
+        this.words = words;
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * Returns the empty set of the given number of deals.
+     */
+    static DealBitmap empty(int universe) {
+        return new DealBitmap(universe, NO_ORDINALS, null, 0);
+    }
+
+    /**
+     * Static factory method to create the set of the first count ordinals of the given array.
+     *
+     * @param universe       the number of deals of the snapshot
+     * @param sortedOrdinals ascending ordinals, without duplicates
+     */
+    static DealBitmap of(int universe, int[] sortedOrdinals, int count) {
+        if ((long) count * SPARSE_RATIO < universe) {
+            return new DealBitmap(universe, Arrays.copyOf(sortedOrdinals, count), null, count);
+        }
+
+        long[] words = new long[wordCount(universe)];
+        for (int i = 0; i < count; i++) {
+            words[sortedOrdinals[i] >>> 6] |= 1L << sortedOrdinals[i];
+        }
+        return new DealBitmap(universe, null, words, count);
+    }
+
+    /**
+     * Static factory method to create the set of the given range of ordinals, in any order.
+     * Only a sparse set is sorted, a dense set costs the range and deals / 64 words.
+     *
+     * @param universe the number of deals of the snapshot
+     * @param ordinals ordinals without duplicates, from index {@code from} (inclusive) to {@code to} (exclusive)
+     */
+    static DealBitmap ofUnsorted(int universe, int[] ordinals, int from, int to) {
+        int count = to - from;
+        if ((long) count * SPARSE_RATIO < universe) {
+            int[] sorted = Arrays.copyOfRange(ordinals, from, to);
+            Arrays.sort(sorted);
+            return new DealBitmap(universe, sorted, null, count);
+        }
+
+        long[] words = new long[wordCount(universe)];
+        for (int i = from; i < to; i++) {
+            words[ordinals[i] >>> 6] |= 1L << ordinals[i];
+        }
+        return new DealBitmap(universe, null, words, count);
+    }
+
+    /**
+     * Static factory method to create the set of the bits set in the given words, the bit of each ordinal being
+     * bit {@code ordinal % 64} of word {@code ordinal / 64}.
+     *
+     * @param universe the number of deals of the snapshot
+     */
+    static DealBitmap ofWords(int universe, long[] words) {
+        int cardinality = 0;
+        for (long word : words) {
+            cardinality += Long.bitCount(word);
+        }
+
+        if ((long) cardinality * SPARSE_RATIO >= universe) {
+            return new DealBitmap(universe, null, words, cardinality);
+        }
+
+        return new DealBitmap(universe, ordinalsOf(words, cardinality), null, cardinality);
+    }
+
+    private static int[] ordinalsOf(long[] words, int cardinality) {
+        int[] ordinals = new int[cardinality];
+        int count = 0;
+        for (int word = 0; word < words.length; word++) {
+            for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                ordinals[count++] = (word << 6) + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return ordinals;
+    }
+
+    private static int wordCount(int universe) {
+        return (universe + 63) >>> 6;
+    }
+
+    /**
+     * Returns the deals of both this set and the given set.
+     */
+    DealBitmap and(DealBitmap other) {
+        if (ordinals != null && other.ordinals != null) {
+            return andSparse(ordinals, other.ordinals);
+        }
+        if (ordinals != null) {
+            return other.andDense(ordinals);
+        }
+        if (other.ordinals != null) {
+            return andDense(other.ordinals);
+        }
+
+        long[] and = new long[words.length];
+        for (int word = 0; word < words.length; word++) {
+            and[word] = words[word] & other.words[word];
+        }
+        return ofWords(universe, and);
+    }
+
+    private DealBitmap andSparse(int[] left, int[] right) {
+        int[] and = new int[Math.min(left.length, right.length)];
+        int count = 0;
+        for (int l = 0, r = 0; l < left.length && r < right.length; ) {
+            if (left[l] < right[r]) {
+                l++;
+            } else if (left[l] > right[r]) {
+                r++;
+            } else {
+                and[count++] = left[l];
+                l++;
+                r++;
+            }
+        }
+        return new DealBitmap(universe, Arrays.copyOf(and, count), null, count);
+    }
+
+    private DealBitmap andDense(int[] sparse) {
+        int[] and = new int[sparse.length];
+        int count = 0;
+        for (int ordinal : sparse) {
+            if (contains(ordinal)) {
+                and[count++] = ordinal;
+            }
+        }
+        return new DealBitmap(universe, Arrays.copyOf(and, count), null, count);
+    }
+
+    /**
+     * Returns the deals of this set matching the given predicate, visiting each deal of the set once.
+     */
+    DealBitmap filter(IntPredicate predicate) {
+        int[] matching = new int[cardinality];
+        int count = 0;
+        if (ordinals != null) {
+            for (int ordinal : ordinals) {
+                if (predicate.test(ordinal)) {
+                    matching[count++] = ordinal;
+                }
+            }
+        } else {
+            for (int word = 0; word < words.length; word++) {
+                for (long bits = words[word]; bits != 0; bits &= bits - 1) {
+                    int ordinal = (word << 6) + Long.numberOfTrailingZeros(bits);
+                    if (predicate.test(ordinal)) {
+                        matching[count++] = ordinal;
+                    }
+                }
+            }
+        }
+        return of(universe, matching, count);
+    }
+
+    boolean contains(int ordinal) {
+        if (ordinals != null) {
+            return Arrays.binarySearch(ordinals, ordinal) >= 0;
+        }
+        return (words[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    int cardinality() {
+        return cardinality;
+    }
+
+    boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * Returns the ordinals of the set, in ascending order.
+     */
+    int[] toArray() {
+        return ordinals != null ? ordinals.clone() : ordinalsOf(words, cardinality);
+    }
+
+    /**
+     * Collects ordinals in ascending order into a {@link DealBitmap}.
+     */
+    static final class Builder {
+
+        private final int universe;
+        private int[] ordinals = new int[16];
+        private int count;
+
+        Builder(int universe) {
+            this.universe = universe;
+        }
+
+        /**
+         * Adds the ordinals in [from, to), all greater than the ordinals added so far.
+         */
+        Builder addRange(int from, int to) {
+            for (int ordinal = from; ordinal < to; ordinal++) {
+                add(ordinal);
+            }
+            return this;
+        }
+
+        /**
+         * Adds the given ordinal, not less than the ordinals added so far.
+         *
+         * @throws IllegalArgumentException in case the ordinal is less than the last ordinal added
+         */
+        Builder add(int ordinal) {
+            if (count > 0 && ordinals[count - 1] >= ordinal) {
+                if (ordinals[count - 1] == ordinal) {
+                    return this;
+                }
+                throw new IllegalArgumentException("Ordinal " + ordinal + " added after " + ordinals[count - 1] + ".");
+            }
+            if (count == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, count * 2);
+            }
+            ordinals[count++] = ordinal;
+            return this;
+        }
+
+        DealBitmap build() {
+            return DealBitmap.of(universe, ordinals, count);
+        }
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.eatclub.challenge.domain.deal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+
+/**
+ * Fork-join pool running the partitioned stages of deal snapshot builds.
+ * <p>
+ * A stage over a range of items is split into contiguous partitions of at least a minimum size, one per
+ * worker at most, and the calling thread waits for all of them. Each partition writes its own slots of
+ * the stage output, and partition results are merged in partition order, so a build is identical
+ * whatever the number of partitions. Ranges smaller than two partitions run on the calling thread.
+ * <p>
+ * The shared pool is dedicated to snapshot builds, so catalogue refreshes never take the workers of the
+ * common pool, which request threads use for parallel streams.
+ */
+final class DealBuildPool {
+
+    /**
+     * Below this number of items per partition, splitting costs more than it saves.
+     */
+    static final int MIN_PARTITION_SIZE = 2048;
+
+    /**
+     * Pool running every stage on the calling thread.
+     */
+    static final DealBuildPool SEQUENTIAL = new DealBuildPool(null, Integer.MAX_VALUE);
+
+    private static final DealBuildPool SHARED = new DealBuildPool(
+            new ForkJoinPool(Runtime.getRuntime().availableProcessors(), DealBuildPool::newWorker, null, false),
+            MIN_PARTITION_SIZE);
+
+    private final ForkJoinPool pool;
+    private final int minPartitionSize;
+
+    DealBuildPool(ForkJoinPool pool, int minPartitionSize) {
+        this.pool = pool;
+        this.minPartitionSize = minPartitionSize;
+    }
+
+    /**
+     * Returns the pool shared by the snapshot builds of the application, with one worker per core.
+     */
+    static DealBuildPool shared() {
+        return SHARED;
+    }
+
+    private static ForkJoinWorkerThread newWorker(ForkJoinPool pool) {
+        ForkJoinWorkerThread worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+        worker.setName("deal-snapshot-build-" + worker.getPoolIndex());
+        return worker;
+    }
+
+    /**
+     * A stage of a build over a partition of a range of items.
+     */
+    @FunctionalInterface
+    interface Stage {
+
+        /**
+         * Runs the stage over the items of the given partition.
+         *
+         * @param partition the index of the partition, from 0
+         * @param from      the first item of the partition
+         * @param to        the end of the partition, exclusive
+         */
+        void run(int partition, int from, int to);
+    }
+
+    /**
+     * Returns the number of partitions a range of the given number of items is split into.
+     */
+    int partitions(int size) {
+        if (pool == null) {
+            return 1;
+        }
+
+        return Math.max(1, Math.min(pool.getParallelism(), size / minPartitionSize));
+    }
+
+    /**
+     * Returns the first item of the given partition of a range split into the given number of partitions.
+     */
+    static int partitionStart(int size, int partitions, int partition) {
+        return (int) ((long) size * partition / partitions);
+    }
+
+    /**
+     * Runs the given stage over the {@link #partitions} of a range of the given number of items,
+     * and returns once every partition completed.
+     *
+     * @throws RuntimeException the exception thrown by a partition, if any
+     */
+    void run(int size, Stage stage) {
+        int partitions = partitions(size);
+        if (partitions == 1) {
+            stage.run(0, 0, size);
+            return;
+        }
+
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            int index = partition;
+            tasks.add(ForkJoinTask.adapt(() -> stage.run(index,
+                    partitionStart(size, partitions, index), partitionStart(size, partitions, index + 1))));
+        }
+
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+}
@@ -0,0 +1,60 @@
+package org.eatclub.challenge.domain.deal;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Filter on the attributes of the active deals. Each criterion is optional, and a deal must match every given one.
+ *
+ * @param suburb      the suburb of the restaurant, case-insensitive
+ * @param cuisine     one of the cuisines of the restaurant, case-insensitive
+ * @param dineIn      whether the deal is a dine-in deal
+ * @param lightning   whether the deal is a lightning deal
+ * @param minDiscount the minimum discount of the deal, in percent
+ */
+public record DealFilter(String suburb, String cuisine, Boolean dineIn, Boolean lightning, Integer minDiscount) {
+
+    public static final DealFilter NONE = new DealFilter(null, null, null, null, null);
+
+    private static final int DIGEST_BYTES = 16;
+    private static final Base64.Encoder DIGEST_ENCODER = Base64.getUrlEncoder().withoutPadding();
+
+    /**
+     * Returns true if no criterion is given, so every deal matches.
+     */
+    public boolean isEmpty() {
+        return suburb == null && cuisine == null && dineIn == null && lightning == null && minDiscount == null;
+    }
+
+    /**
+     * Returns a digest of the criteria as they are matched, so that filters matching the same deals,
+     * e.g. differing in the case of the suburb only, have the same digest.
+     */
+    String digest() {
+        String criteria = String.join("|", keyCriterion(suburb), keyCriterion(cuisine),
+                String.valueOf(dineIn), String.valueOf(lightning), String.valueOf(minDiscount));
+
+        byte[] hash = sha256().digest(criteria.getBytes(StandardCharsets.UTF_8));
+        return DIGEST_ENCODER.encodeToString(Arrays.copyOf(hash, DIGEST_BYTES));
+    }
+
+    /**
+     * Returns the matched key of the given suburb or cuisine, escaped so that it cannot be mistaken for another
+     * criterion, or a dash if it is not given.
+     */
+    private static String keyCriterion(String value) {
+        return value == null ? "-" : "+" + DealAttributeIndex.key(value).replace("\\", "\\\\").replace("|", "\\|");
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.common.MinuteOfDay;
+
+import java.util.Arrays;
+
+/**
+ * Immutable priority search tree over the deal windows of a snapshot, answering time range queries.
+ * <p>
+ * Both range queries are three-sided: a deal overlaps the range [from, to] if it starts at or before
+ * {@code to} and ends at or after {@code from}, and it contains the range if it starts at or before
+ * {@code from} and ends at or after {@code to}. The tree splits the deals by start like a balanced search tree,
+ * and each node holds the deal with the latest end of its subtree like a max-heap. A query therefore
+ * stops at the first node ending too early and skips the subtrees starting too late, and finds the k matching
+ * deals in O(log n + k) before sorting their ordinals into catalogue order. Building costs O(n log n).
+ */
+class DealIntervalIndex {
+
+    private static final int NO_NODE = -1;
+
+    private final int[] firstMinutes;
+    private final int[] lastMinutes;
+
+    // tree nodes, indexed by node, the root being node 0
+    private final int[] nodeOrdinals;
+    private final int[] leftNodes;
+    private final int[] rightNodes;
+    private final int[] rightFirstMinutes;
+
+    private int nodeCount;
+
+    private DealIntervalIndex(int[] firstMinutes, int[] lastMinutes) {
+        this.firstMinutes = firstMinutes;
+        this.lastMinutes = lastMinutes;
+
+        int deals = firstMinutes.length;
+        nodeOrdinals = new int[deals];
+        leftNodes = new int[deals];
+        rightNodes = new int[deals];
+        rightFirstMinutes = new int[deals];
+    }
+
+    /**
+     * Static factory method to create the index of the given deal windows, the deal ordinal being the array index.
+     *
+     * @param firstMinutes the first active minute of day of each deal
+     * @param lastMinutes  the last active minute of day of each deal, inclusive
+     */
+    static DealIntervalIndex of(int[] firstMinutes, int[] lastMinutes) {
+        var index = new DealIntervalIndex(firstMinutes, lastMinutes);
+
+        // Counting sort of the ordinals by first minute, keeping the catalogue order on equal first minutes
+        int[] offsets = new int[MinuteOfDay.MINUTES_PER_DAY + 1];
+        for (int firstMinute : firstMinutes) {
+            offsets[firstMinute + 1]++;
+        }
+        for (int minute = 0; minute < MinuteOfDay.MINUTES_PER_DAY; minute++) {
+            offsets[minute + 1] += offsets[minute];
+        }
+
+        int[] ordinals = new int[firstMinutes.length];
+        for (int ordinal = 0; ordinal < firstMinutes.length; ordinal++) {
+            ordinals[offsets[firstMinutes[ordinal]]++] = ordinal;
+        }
+
+        index.build(ordinals, 0, ordinals.length);
+        return index;
+    }
+
+    /**
+     * Builds the subtree of the ordinals in [from, to), sorted by first minute, and returns its root node.
+     */
+    private int build(int[] ordinals, int from, int to) {
+        if (from >= to) {
+            return NO_NODE;
+        }
+
+        // Promote the deal ending last, keeping the remaining ordinals sorted
+        int latest = from;
+        for (int i = from + 1; i < to; i++) {
+            if (lastMinutes[ordinals[i]] > lastMinutes[ordinals[latest]]) {
+                latest = i;
+            }
+        }
+        int node = nodeCount++;
+        nodeOrdinals[node] = ordinals[latest];
+        System.arraycopy(ordinals, latest + 1, ordinals, latest, to - latest - 1);
+
+        // Split the remaining deals by first minute
+        int remaining = to - 1;
+        int middle = (from + remaining) >>> 1;
+        rightFirstMinutes[node] = middle < remaining ? firstMinutes[ordinals[middle]] : Integer.MAX_VALUE;
+        leftNodes[node] = build(ordinals, from, middle);
+        rightNodes[node] = build(ordinals, middle, remaining);
+
+        return node;
+    }
+
+    /**
+     * Returns the ordinals of the deals starting at or before the given first minute and ending at or after
+     * the given last minute, in ascending order.
+     */
+    int[] find(int maxFirstMinute, int minLastMinute) {
+        var found = new Ordinals();
+        if (nodeCount > 0) {
+            find(0, maxFirstMinute, minLastMinute, found);
+        }
+
+        int[] ordinals = Arrays.copyOf(found.values, found.size);
+        Arrays.sort(ordinals);
+        return ordinals;
+    }
+
+    private void find(int node, int maxFirstMinute, int minLastMinute, Ordinals found) {
+        int ordinal = nodeOrdinals[node];
+        if (lastMinutes[ordinal] < minLastMinute) {
+            return; // no deal of the subtree ends late enough
+        }
+
+        if (firstMinutes[ordinal] <= maxFirstMinute) {
+            found.add(ordinal);
+        }
+        if (leftNodes[node] != NO_NODE) {
+            find(leftNodes[node], maxFirstMinute, minLastMinute, found);
+        }
+        if (rightNodes[node] != NO_NODE && rightFirstMinutes[node] <= maxFirstMinute) {
+            find(rightNodes[node], maxFirstMinute, minLastMinute, found);
+        }
+    }
+
+    private static final class Ordinals {
+
+        private int[] values = new int[16];
+        private int size;
+
+        private void add(int ordinal) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = ordinal;
+        }
+    }
+
+}
@@ -2,24 +2,65 @@ package org.eatclub.challenge.domain.deal;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs the deals built with a restaurant hour instead of their invalid time, one JSON line per deal,
+ * to {@code logs/deal-warnings.log}. Snapshots log their issues once, through a {@link DealValidationWriter}.
+ * <p>
+ * Each logger counts the issues it logged, so the counts of the bean used by the {@link DealService}
+ * cover the snapshot builds only.
+ */
+@Component
 public class DealLogger {
 
     private static final Logger LOG = LoggerFactory.getLogger(DealLogger.class);
 
-    public void logInvalidStartTime(String dealId, String fallbackValue) {
-        String message = String.format(
-                "{\"id\" : \"%s\", \"error\" : \"INVALID_START_TIME\", \"fallbackValue\" : \"%s\" }",
-                dealId, fallbackValue);
+    private final AtomicLong invalidStartTimes = new AtomicLong();
+    private final AtomicLong invalidEndTimes = new AtomicLong();
+
+    /**
+     * Returns the number of invalid deal start times logged by this logger, the restaurant open time being used instead.
+     */
+    public long getInvalidStartTimes() {
+        return invalidStartTimes.get();
+    }
+
+    /**
+     * Returns the number of invalid deal end times logged by this logger, the restaurant close time being used instead.
+     */
+    public long getInvalidEndTimes() {
+        return invalidEndTimes.get();
+    }
 
-        LOG.warn(message);
+    /**
+     * Logs the given validation issue.
+     */
+    public void log(DealValidationIssue issue) {
+        switch (issue.type()) {
+            case INVALID_START_TIME -> logInvalidStartTime(issue.dealId(), issue.fallbackValue());
+            case INVALID_END_TIME -> logInvalidEndTime(issue.dealId(), issue.fallbackValue());
+        }
+    }
+
+    public void logInvalidStartTime(String dealId, String fallbackValue) {
+        invalidStartTimes.incrementAndGet();
+        if (LOG.isWarnEnabled()) {
+            LOG.warn(message(dealId, DealValidationIssue.Type.INVALID_START_TIME, fallbackValue));
+        }
     }
 
     public void logInvalidEndTime(String dealId, String fallbackValue) {
-        String message = String.format(
-                "{\"id\" : \"%s\", \"error\" : \"INVALID_END_TIME\", \"fallbackValue\" : \"%s\" }",
-                dealId, fallbackValue);
+        invalidEndTimes.incrementAndGet();
+        if (LOG.isWarnEnabled()) {
+            LOG.warn(message(dealId, DealValidationIssue.Type.INVALID_END_TIME, fallbackValue));
+        }
+    }
 
-        LOG.warn(message);
+    private static String message(String dealId, DealValidationIssue.Type type, String fallbackValue) {
+        return "{\"id\" : \"" + dealId + "\", \"error\" : \"" + type.name()
+                + "\", \"fallbackValue\" : \"" + fallbackValue + "\" }";
     }
-}
\ No newline at end of file
+}
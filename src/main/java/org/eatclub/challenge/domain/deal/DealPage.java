@@ -0,0 +1,12 @@
+package org.eatclub.challenge.domain.deal;
+
+import java.util.List;
+
+/**
+ * A page of the active deals of a minute of the day.
+ *
+ * @param deals      the deals of the page, in catalogue order
+ * @param nextCursor the cursor of the following page, or null if no deal remains
+ */
+public record DealPage(List<Deal> deals, String nextCursor) {
+}
@@ -0,0 +1,50 @@
+package org.eatclub.challenge.domain.deal;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in the active deals of a minute of the day, handed to clients to fetch the next page.
+ * <p>
+ * The cursor is only valid for the deal snapshot it was issued from, since the positions of the deals
+ * change with the catalogue.
+ *
+ * @param snapshotVersion the version of the deal snapshot the cursor was issued from
+ * @param minuteOfDay     the minute of the day of the active deals
+ * @param filterDigest    the {@link DealFilter#digest() digest} of the filter of the active deals
+ * @param offset          the position of the first deal of the next page
+ */
+record DealPageCursor(long snapshotVersion, int minuteOfDay, String filterDigest, int offset) {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    /**
+     * Parses the given encoded cursor.
+     *
+     * @throws IllegalArgumentException in case the cursor was not issued by {@link #encode()}
+     */
+    static DealPageCursor decode(String encoded) {
+        try {
+            String[] parts = new String(DECODER.decode(encoded), StandardCharsets.US_ASCII).split("\\.");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Expected 4 parts, but was " + parts.length + ".");
+            }
+
+            var cursor = new DealPageCursor(Long.parseLong(parts[0]), Integer.parseInt(parts[1]),
+                    parts[2], Integer.parseInt(parts[3]));
+            if (cursor.offset < 0) {
+                throw new IllegalArgumentException("Negative offset.");
+            }
+            return cursor;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor. Please use the nextCursor of the previous page.", e);
+        }
+    }
+
+    String encode() {
+        return ENCODER.encodeToString((snapshotVersion + "." + minuteOfDay + "." + filterDigest + "." + offset)
+                .getBytes(StandardCharsets.US_ASCII));
+    }
+
+}
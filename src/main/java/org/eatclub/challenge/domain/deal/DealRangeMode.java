@@ -0,0 +1,36 @@
+package org.eatclub.challenge.domain.deal;
+
+import java.util.Locale;
+
+/**
+ * How the deals active during a time range are matched against the range.
+ */
+public enum DealRangeMode {
+
+    /**
+     * The deal is active at some minute of the range.
+     */
+    OVERLAP,
+
+    /**
+     * The deal is active at every minute of the range.
+     */
+    CONTAINS;
+
+    /**
+     * Returns the mode of the given case-insensitive name.
+     *
+     * @throws IllegalArgumentException in case the name is not a mode
+     */
+    public static DealRangeMode of(String name) {
+        for (DealRangeMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(name)) {
+                return mode;
+            }
+        }
+
+        throw new IllegalArgumentException("Invalid range mode " + name + ". Please use "
+                + OVERLAP.name().toLowerCase(Locale.ROOT) + " or " + CONTAINS.name().toLowerCase(Locale.ROOT) + ".");
+    }
+
+}
@@ -1,137 +1,343 @@
 package org.eatclub.challenge.domain.deal;
 
-import org.eatclub.challenge.common.LocalTimeWindow;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.eatclub.challenge.common.MinuteOfDay;
 import org.eatclub.challenge.domain.restaurant.RestaurantService;
-import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.RestaurantsRefreshedEvent;
 import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
-import org.eatclub.challenge.web.response.ActiveDealsResponse;
-import org.eatclub.challenge.web.response.PeakTimeWindowResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.List;
-import java.util.Locale;
-import java.util.Map;
-import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Service for managing deals.
  * It retrieves active deals based on the provided time of day.
+ * <p>
+ * Each query is timed by the {@code eatclub.deals.query} timer, tagged with the query.
+ * Snapshot builds are timed by the {@code eatclub.deals.snapshot.build} timer.
+ * <p>
+ * The deals are validated once per snapshot, and the new issues of each snapshot are logged asynchronously
+ * by a {@link DealValidationWriter}.
+ * <p>
+ * Each built snapshot is saved by the {@link DealSnapshotStore}, and the last saved snapshot is restored at startup,
+ * so requests are served from the last-good catalogue until the first catalogue is fetched.
+ * <p>
+ * A {@link DealSnapshotBuiltEvent} is published once each snapshot is built, before it is served.
  */
 @Service
 public class DealService {
 
     private static final Logger LOG = LoggerFactory.getLogger(DealService.class);
 
-    private static final DateTimeFormatter HOURS_MINUTES_FORMATTER = DateTimeFormatter.ofPattern("HH:mm", Locale.ENGLISH);
-
     private final RestaurantService restaurantService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DealSnapshotStore snapshotStore;
+
+    private final Timer activeQueryTimer;
+    private final Timer rangeQueryTimer;
+    private final Timer peakQueryTimer;
+    private final Timer peakTopQueryTimer;
+    private final Timer histogramQueryTimer;
+    private final Timer peakCalculationTimer;
+    private final Timer snapshotBuildTimer;
+
+    private final DealValidationWriter validationWriter;
+
+    private final AtomicReference<DealSnapshot> snapshot = new AtomicReference<>(DealSnapshot.empty());
+
+    // the last restaurant list whose snapshot failed to build, not built again until the next refresh
+    private volatile List<RestaurantDto> failedFrom;
+
+    public DealService(RestaurantService restaurantService, MeterRegistry meterRegistry,
+                       ApplicationEventPublisher eventPublisher) {
+        this(restaurantService, meterRegistry, eventPublisher, DealSnapshotStore.disabled(), new DealLogger());
+    }
 
-    public DealService(RestaurantService restaurantService) {
+    /**
+     * @param dealLogger the logger of the new validation issues of each snapshot, counting them
+     */
+    @Autowired
+    public DealService(RestaurantService restaurantService, MeterRegistry meterRegistry,
+                       ApplicationEventPublisher eventPublisher, DealSnapshotStore snapshotStore, DealLogger dealLogger) {
         this.restaurantService = restaurantService;
+        this.eventPublisher = eventPublisher;
+        this.snapshotStore = snapshotStore;
+        this.validationWriter = new DealValidationWriter(dealLogger);
+
+        this.activeQueryTimer = queryTimer("active", meterRegistry);
+        this.rangeQueryTimer = queryTimer("range", meterRegistry);
+        this.peakQueryTimer = queryTimer("peak", meterRegistry);
+        this.peakTopQueryTimer = queryTimer("peak.top", meterRegistry);
+        this.histogramQueryTimer = queryTimer("histogram", meterRegistry);
+        this.peakCalculationTimer = meterRegistry.timer("eatclub.deals.peak.calculation");
+        this.snapshotBuildTimer = meterRegistry.timer("eatclub.deals.snapshot.build");
+    }
+
+    private static Timer queryTimer(String query, MeterRegistry meterRegistry) {
+        return meterRegistry.timer("eatclub.deals.query", "query", query);
     }
 
     /**
-     * Returns a list of active deals based on the provided time of day.
+     * Returns the deals active at the provided time of day.
      *
      * @param timeOfDayAsString the given time of day in HH:mm format
-     * @return the response containing active deals
+     * @return the active deals
      */
-    public ActiveDealsResponse getActiveDeals(String timeOfDayAsString) {
-        LOG.info("getActiveDeals: {}", timeOfDayAsString);
+    public List<Deal> getActiveDealsAt(String timeOfDayAsString) {
+        return getActiveDealsAt(timeOfDayAsString, DealFilter.NONE);
+    }
+
+    /**
+     * Returns the deals active at the provided time of day and matching the provided filter.
+     *
+     * @param timeOfDayAsString the given time of day in HH:mm format
+     * @param filter            the filter on the attributes of the deals, answered from the snapshot indexes
+     * @return the matching active deals, in catalogue order
+     */
+    public List<Deal> getActiveDealsAt(String timeOfDayAsString, DealFilter filter) {
+        LOG.info("getActiveDeals: {} ({})", timeOfDayAsString, filter);
 
-        var timeOfDay = parseTime(timeOfDayAsString);
-        var activeDeals = getActiveDeals(timeOfDay);
+        return activeQueryTimer.record(() -> {
+            var minuteOfDay = MinuteOfDay.parse(timeOfDayAsString);
 
-        return new ActiveDealsResponse.Builder()
-                .withActiveDeals(activeDeals)
-                .build();
+            var current = getSnapshot();
+            return filter.isEmpty() ? current.getActiveDeals(minuteOfDay) : current.getActiveDeals(minuteOfDay, filter);
+        });
     }
 
     /**
-     * Calculates the peak time window when the most deals are active.
-     * <p>
-     * The algorithm works by populating all the minutes between a range (start, end).
-     * Each time a deal is active, it increments the count for each minute in that range.
-     * The map is sorted , allowing us to easily find the peak window.
-     * <p>
-     * We iterate through the timeline and find the maximum count of active deals at any minute.
-     * Whenever a new maximum is found, we update the peak start and end times as we slide through the timeline.
+     * Returns a page of the active deals based on the provided time of day and filter.
      *
-     * @param restaurants the given restaurants with their deals
-     * @return the response containing the peak time window
+     * @param timeOfDayAsString the given time of day in HH:mm format
+     * @param filter            the filter on the attributes of the deals, answered from the snapshot indexes
+     * @param limit             the maximum number of deals of the page, or null for all the remaining deals
+     * @param cursor            the nextCursor of the previous page, or null for the first page
+     * @return the deals of the page, with the nextCursor of the following page if deals remain
      */
-    public PeakTimeWindowResponse calculatePeakWindow(List<RestaurantDto> restaurants) {
-        Map<LocalTime, Integer> timeline = new TreeMap<>();
-
-        // Loop through each restaurant and each of its deals
-        for (RestaurantDto restaurant : restaurants) {
-            for (DealDto dealDto : restaurant.deals()) {
-                Deal deal = Deal.of(dealDto, restaurant);
+    public DealPage getActiveDealsPage(String timeOfDayAsString, DealFilter filter, Integer limit, String cursor) {
+        LOG.info("getActiveDeals: {} ({}, limit {})", timeOfDayAsString, filter, limit);
 
-                LocalTime start = deal.getStart();
-                LocalTime end = deal.getEnd();
+        var minuteOfDay = MinuteOfDay.parse(timeOfDayAsString);
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("The limit must be positive, but was " + limit + ".");
+        }
 
-                if (LocalTimeWindow.isValidWindow(start, end)) {
-                    // Add all minutes between start and end to the timeline
-                    populateMinutesForWindow(start, end, timeline);
-                }
+        var current = getSnapshot();
+        var filterDigest = filter.digest();
+        int offset = 0;
+        if (cursor != null) {
+            var position = DealPageCursor.decode(cursor);
+            if (position.snapshotVersion() != current.getVersion() || position.minuteOfDay() != minuteOfDay
+                    || !position.filterDigest().equals(filterDigest)) {
+                throw new IllegalArgumentException("The cursor has expired or belongs to another time of day "
+                        + "or filter. Please start from the first page.");
             }
+            offset = position.offset();
         }
 
-        int maxCount = 0;
-        LocalTime peakStart = null;
-        LocalTime peakEnd = null;
+        int pageSize = limit != null ? limit : Integer.MAX_VALUE;
+        List<Deal> deals;
+        int total;
+        if (filter.isEmpty()) {
+            deals = current.getActiveDeals(minuteOfDay, offset, pageSize);
+            total = current.countActiveDeals(minuteOfDay);
+        } else {
+            var matching = current.getActiveDeals(minuteOfDay, filter);
+            int from = Math.min(offset, matching.size());
+            deals = matching.subList(from, from + Math.min(pageSize, matching.size() - from));
+            total = matching.size();
+        }
 
-        for (Map.Entry<LocalTime, Integer> entry : timeline.entrySet()) {
-            LocalTime time = entry.getKey();
-            int count = entry.getValue();
+        int nextOffset = offset + deals.size();
+        var nextCursor = nextOffset < total
+                ? new DealPageCursor(current.getVersion(), minuteOfDay, filterDigest, nextOffset).encode()
+                : null;
 
-            if (count > maxCount) {
-                maxCount = count;
-                peakStart = time;
-                peakEnd = time;
-            }
-            // The count start of peak is calculated already and
-            // the time is the next minute from the peak start (we are sliding)
-            else if (count == maxCount && peakEnd != null && time.equals(peakEnd.plusMinutes(1))) {
-                peakEnd = time; // extend the peak window
+        return new DealPage(deals, nextCursor);
+    }
+
+    /**
+     * Returns the deals active during the provided range of times of day, both inclusive.
+     *
+     * @param fromAsString the start of the range in HH:mm format
+     * @param toAsString   the end of the range in HH:mm format, not before the start
+     * @param modeAsString {@code overlap} for the deals active at some time of the range,
+     *                     or {@code contains} for the deals active during the whole range
+     * @return the active deals, in catalogue order
+     */
+    public List<Deal> getActiveDealsInRange(String fromAsString, String toAsString, String modeAsString) {
+        LOG.info("getActiveDealsInRange: {}-{} ({})", fromAsString, toAsString, modeAsString);
+
+        return rangeQueryTimer.record(() -> {
+            var fromMinute = MinuteOfDay.parse(fromAsString);
+            var toMinute = MinuteOfDay.parse(toAsString);
+            var mode = DealRangeMode.of(modeAsString);
+
+            if (fromMinute > toMinute) {
+                throw new IllegalArgumentException("Invalid time range. The start must not be after the end.");
             }
+
+            return getSnapshot().getActiveDeals(fromMinute, toMinute, mode);
+        });
+    }
+
+    /**
+     * Returns the peak time window when the most deals are active in the current restaurant catalogue.
+     * The window is computed once per catalogue snapshot.
+     *
+     * @return the peak time window, or null if there are no deals
+     */
+    public DealTimeline.Window getPeakWindow() {
+        return peakQueryTimer.record(() -> getSnapshot().getTimeline().getPeakWindow());
+    }
+
+    /**
+     * Returns up to the given number of non-overlapping windows with the most active deals
+     * in the current restaurant catalogue, ordered by the number of active deals.
+     *
+     * @param top the maximum number of windows to return
+     * @return the peak time windows
+     */
+    public List<DealTimeline.Window> getPeakWindows(int top) {
+        return peakTopQueryTimer.record(() -> getSnapshot().getTimeline().getTopWindows(top));
+    }
+
+    /**
+     * Returns the number of active deals over the day in the current restaurant catalogue.
+     *
+     * @return the run-length encoded histogram of active deals, covering the whole day in time order
+     */
+    public List<DealTimeline.Window> getHistogram() {
+        return histogramQueryTimer.record(() -> getSnapshot().getTimeline().getWindows());
+    }
+
+    /**
+     * Returns the deduplicated validation issues of the deals of the current restaurant catalogue.
+     *
+     * @return the report of the issues, with the number of times each was found
+     */
+    public DealValidationReport getValidationReport() {
+        return getSnapshot().getValidationReport();
+    }
+
+    /**
+     * Calculates the peak time window when the most deals are active.
+     * <p>
+     * The algorithm works on a difference array of the minutes of the day (see {@link DealTimeline}).
+     * Each deal adds one at its start minute and removes one after its end minute,
+     * so a single prefix sum yields the count of active deals at every minute.
+     * <p>
+     * We iterate through the timeline and find the maximum count of active deals at any minute.
+     * Whenever a new maximum is found, we update the peak start and end times as we slide through the timeline.
+     *
+     * @param restaurants the given restaurants with their deals
+     * @return the peak time window, or null if there are no deals
+     */
+    public DealTimeline.Window calculatePeakWindow(List<RestaurantDto> restaurants) {
+        return peakCalculationTimer.record(() -> DealTimeline.of(restaurants).getPeakWindow());
+    }
+
+    /**
+     * Restores the last saved snapshot at startup, unless a catalogue has already been fetched.
+     * The scheduled refresh then replaces it in the background.
+     */
+    @PostConstruct
+    public void restoreSnapshot() {
+        var restaurants = snapshotStore.load();
+        if (restaurants == null || !restaurantService.restore(restaurants)) {
+            return;
         }
 
-        return new PeakTimeWindowResponse(peakStart, peakEnd);
+        try {
+            rebuildSnapshot(restaurants);
+        } catch (IllegalArgumentException e) {
+            LOG.error("Failed to build the deal snapshot of the restored restaurants", e);
+        }
     }
 
-    private void populateMinutesForWindow(LocalTime start, LocalTime end, Map<LocalTime, Integer> timeline) {
-        for (LocalTime t = start; !t.isAfter(end); t = t.plusMinutes(1)) {
-            timeline.merge(t, 1, Integer::sum);
+    /**
+     * Rebuilds the deal snapshot as soon as a new restaurant catalogue is fetched,
+     * so that requests do not pay for the rebuild.
+     */
+    @EventListener
+    public void onRestaurantsRefreshed(RestaurantsRefreshedEvent event) {
+        try {
+            rebuildSnapshot(event.restaurants());
+        } catch (IllegalArgumentException e) {
+            LOG.error("Failed to build the deal snapshot of the refreshed restaurants", e);
         }
     }
 
-    private List<Deal> getActiveDeals(LocalTime timeOfDay) {
-        var restaurants = restaurantService.getRestaurants();
-        var deals = Deals.fromRestaurants(restaurants);
+    /**
+     * Logs the validation reports still queued and stops their writer thread when the context is closed.
+     */
+    @PreDestroy
+    public void shutdown() {
+        validationWriter.close();
+    }
 
-        return filterActiveDeals(deals, timeOfDay);
+    /**
+     * Returns the last built deal snapshot, without checking whether the restaurant catalogue has been refreshed.
+     */
+    public DealSnapshot getLatestSnapshot() {
+        return snapshot.get();
     }
 
-    private List<Deal> filterActiveDeals(List<Deal> deals, LocalTime timeOfDay) {
-        return deals.stream()
-                .filter(deal -> deal.isActive(timeOfDay))
-                .toList();
+    /**
+     * Returns the deal snapshot of the current restaurant catalogue.
+     * The snapshot is rebuilt only when the catalogue has been refreshed since it was last built.
+     * A catalogue whose snapshot fails to build is tried once, and the last built snapshot is served until
+     * the next refresh.
+     */
+    public DealSnapshot getSnapshot() {
+        var restaurants = restaurantService.getRestaurants();
+        var current = snapshot.get();
+
+        if (current.isBuiltFrom(restaurants) || restaurants == failedFrom) {
+            return current;
+        }
 
+        try {
+            return rebuildSnapshot(restaurants);
+        } catch (IllegalArgumentException e) {
+            LOG.error("Failed to build the deal snapshot of the current restaurants, serving the last built one", e);
+            return snapshot.get();
+        }
     }
 
-    private LocalTime parseTime(String timeOfDay) {
+    /**
+     * @throws IllegalArgumentException in case the snapshot of the given restaurants fails to build,
+     *                                  which is then remembered so that it is not built again
+     */
+    private synchronized DealSnapshot rebuildSnapshot(List<RestaurantDto> restaurants) {
+        var current = snapshot.get();
+        if (current.isBuiltFrom(restaurants) || restaurants == failedFrom) {
+            return current;
+        }
+
+        LOG.debug("Rebuilding deal snapshot for {} restaurants", restaurants.size());
+        DealSnapshot rebuilt;
         try {
-            return LocalTime.parse(timeOfDay, HOURS_MINUTES_FORMATTER);
-        } catch (DateTimeParseException e) {
-            throw new IllegalArgumentException("Invalid time format. Please use HH:mm format.", e);
+            rebuilt = snapshotBuildTimer.record(() -> DealSnapshot.of(restaurants, current));
+        } catch (IllegalArgumentException e) {
+            failedFrom = restaurants;
+            throw e;
         }
+        eventPublisher.publishEvent(new DealSnapshotBuiltEvent(rebuilt));
+        snapshot.set(rebuilt);
+        validationWriter.submit(rebuilt.getValidationReport());
+        snapshotStore.save(rebuilt);
+
+        return rebuilt;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,503 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.common.MinuteOfDay;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Immutable snapshot of the deals of a restaurant catalogue, indexed by minute of the day.
+ * <p>
+ * The snapshot is built once per catalogue refresh. Each minute of the day maps to a bucket holding the ordinals
+ * of the deals active at that minute, so an active deals lookup is an array index plus a copy instead of
+ * rebuilding and filtering every deal per request. Ordinals within a bucket are ascending,
+ * so lookups preserve the catalogue order of the deals.
+ * <p>
+ * A snapshot can be built from the previous snapshot. Restaurants are matched by objectId, and a restaurant
+ * equal to its previous version keeps its deals, so only the deals of the changed restaurants are built.
+ * The deal windows are then compared ordinal by ordinal: the timeline is updated with the windows that changed
+ * only, and only the buckets of the minutes they cover are refilled. The other buckets are shared with the
+ * previous snapshot. A refresh changing deal details but no deal window, or changing the last restaurants only,
+ * therefore costs in proportion to the changes rather than to the catalogue.
+ * <p>
+ * The deals are validated when they are built, so each snapshot holds the {@link DealValidationReport} of its
+ * catalogue. Unchanged restaurants keep their issues from the previous report.
+ * <p>
+ * Builds are split into partitions of the restaurants, and of the deal ordinals, run on the {@link DealBuildPool},
+ * so large catalogues are built on every core. Partitions write disjoint slots and their results are merged in
+ * catalogue order, so a snapshot holds the same deals, buckets and issues whatever the number of partitions.
+ * <p>
+ * Reused deals keep the deal table of the snapshot they were built in, so a full rebuild happens after
+ * {@value #MAX_INCREMENTAL_BUILDS} consecutive incremental builds to release the tables of older catalogues.
+ */
+public class DealSnapshot {
+
+    private static final int MAX_INCREMENTAL_BUILDS = 16;
+
+    /**
+     * Range queries expected to match at least one deal in this many scan every deal window.
+     */
+    private static final int SCAN_RATIO = 32;
+
+    private static final int[] NO_ORDINALS = new int[0];
+
+    private static final AtomicLong VERSIONS = new AtomicLong();
+
+    private static final DealSnapshot EMPTY = emptySnapshot();
+
+    private final List<RestaurantDto> restaurants;
+    private final List<Deal> deals;
+    private final int[] restaurantDealOffsets;
+    private final int[] firstMinutes;
+    private final int[] lastMinutes;
+    private final DealTimeline timeline;
+    private final int[][] buckets;
+    private final int incrementalBuilds;
+    private final DealValidationReport validationReport;
+    private final long version = VERSIONS.incrementAndGet();
+
+    private volatile DealIntervalIndex intervalIndex;
+    private volatile DealAttributeIndex attributeIndex;
+
+    private DealSnapshot(List<RestaurantDto> restaurants, List<Deal> deals, int[] restaurantDealOffsets,
+                         int[] firstMinutes, int[] lastMinutes, DealTimeline timeline, int[][] buckets,
+                         int incrementalBuilds, DealValidationReport validationReport) {
+        this.restaurants = restaurants;
+        this.deals = deals;
+        this.restaurantDealOffsets = restaurantDealOffsets;
+        this.firstMinutes = firstMinutes;
+        this.lastMinutes = lastMinutes;
+        this.timeline = timeline;
+        this.buckets = buckets;
+        this.incrementalBuilds = incrementalBuilds;
+        this.validationReport = validationReport;
+    }
+
+    private static DealSnapshot emptySnapshot() {
+        int[][] buckets = new int[MinuteOfDay.MINUTES_PER_DAY][];
+        Arrays.fill(buckets, NO_ORDINALS);
+
+        return new DealSnapshot(Collections.emptyList(), Collections.emptyList(), new int[1], NO_ORDINALS, NO_ORDINALS,
+                DealTimeline.of(NO_ORDINALS, NO_ORDINALS), buckets, 0, DealValidationReport.empty());
+    }
+
+    public static DealSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Static factory method building the snapshot of the given restaurants.
+     *
+     * @throws IllegalArgumentException in case a deal cannot be built (e.g. invalid restaurant hours)
+     */
+    public static DealSnapshot of(List<RestaurantDto> restaurants) {
+        return of(restaurants, DealBuildPool.shared());
+    }
+
+    /**
+     * Static factory method building the snapshot of the given restaurants on the given pool.
+     *
+     * @throws IllegalArgumentException in case a deal cannot be built (e.g. invalid restaurant hours)
+     */
+    static DealSnapshot of(List<RestaurantDto> restaurants, DealBuildPool pool) {
+        return build(restaurants, EMPTY, new int[restaurants.size()], 0, pool);
+    }
+
+    /**
+     * Static factory method building the snapshot of the given restaurants,
+     * reusing the deals and buckets unchanged since the previous snapshot.
+     *
+     * @throws IllegalArgumentException in case a deal cannot be built (e.g. invalid restaurant hours)
+     */
+    public static DealSnapshot of(List<RestaurantDto> restaurants, DealSnapshot previous) {
+        return of(restaurants, previous, DealBuildPool.shared());
+    }
+
+    /**
+     * Static factory method building the snapshot of the given restaurants on the given pool,
+     * reusing the deals and buckets unchanged since the previous snapshot.
+     *
+     * @throws IllegalArgumentException in case a deal cannot be built (e.g. invalid restaurant hours)
+     */
+    static DealSnapshot of(List<RestaurantDto> restaurants, DealSnapshot previous, DealBuildPool pool) {
+        if (previous.incrementalBuilds >= MAX_INCREMENTAL_BUILDS) {
+            return of(restaurants, pool);
+        }
+
+        return build(restaurants, previous, matchUnchanged(restaurants, previous.restaurants, pool),
+                previous.incrementalBuilds + 1, pool);
+    }
+
+    /**
+     * Returns, for each restaurant, one plus the index of its unchanged previous version, or 0 if it changed.
+     */
+    private static int[] matchUnchanged(List<RestaurantDto> restaurants, List<RestaurantDto> previousRestaurants,
+                                        DealBuildPool pool) {
+        Map<String, Integer> previousIndexesById = new HashMap<>();
+        for (int index = 0; index < previousRestaurants.size(); index++) {
+            String objectId = previousRestaurants.get(index).objectId();
+            if (objectId != null && previousIndexesById.putIfAbsent(objectId, index) != null) {
+                previousIndexesById.put(objectId, -1); // ambiguous objectId, never reused
+            }
+        }
+
+        // Compare the restaurants with their previous versions by partitions, the comparisons being independent
+        int[] previousIndexes = new int[restaurants.size()];
+        pool.run(restaurants.size(), (partition, from, to) -> {
+            for (int index = from; index < to; index++) {
+                RestaurantDto restaurant = restaurants.get(index);
+                Integer previousIndex = restaurant.objectId() != null ? previousIndexesById.get(restaurant.objectId()) : null;
+
+                if (previousIndex != null && previousIndex >= 0 && restaurant.equals(previousRestaurants.get(previousIndex))) {
+                    previousIndexes[index] = previousIndex + 1;
+                }
+            }
+        });
+
+        return previousIndexes;
+    }
+
+    /**
+     * Builds the snapshot of the given restaurants from the previous snapshot.
+     *
+     * @param previousIndexes for each restaurant, one plus the index of its unchanged previous version, or 0
+     */
+    private static DealSnapshot build(List<RestaurantDto> restaurants, DealSnapshot previous, int[] previousIndexes,
+                                      int incrementalBuilds, DealBuildPool pool) {
+        // Build and validate the deals of the changed restaurants only
+        List<RestaurantDto> changedRestaurants = new ArrayList<>();
+        Set<String> unchangedRestaurantIds = new HashSet<>();
+        for (int index = 0; index < restaurants.size(); index++) {
+            if (previousIndexes[index] == 0) {
+                changedRestaurants.add(restaurants.get(index));
+            } else {
+                unchangedRestaurantIds.add(restaurants.get(index).objectId());
+            }
+        }
+
+        var validation = new DealValidationReport.Builder();
+        validation.addAll(previous.validationReport, issue -> unchangedRestaurantIds.contains(issue.restaurantId()));
+        List<Deal> changedDeals = Deals.fromRestaurants(changedRestaurants, validation::add, pool);
+
+        // Assemble the deals in catalogue order
+        List<Deal> deals = new ArrayList<>();
+        int[] restaurantDealOffsets = new int[restaurants.size() + 1];
+        int changedDeal = 0;
+        for (int index = 0; index < restaurants.size(); index++) {
+            if (previousIndexes[index] == 0) {
+                int dealCount = restaurants.get(index).deals().size();
+                deals.addAll(changedDeals.subList(changedDeal, changedDeal + dealCount));
+                changedDeal += dealCount;
+            } else {
+                int previousIndex = previousIndexes[index] - 1;
+                deals.addAll(previous.deals.subList(
+                        previous.restaurantDealOffsets[previousIndex], previous.restaurantDealOffsets[previousIndex + 1]));
+            }
+            restaurantDealOffsets[index + 1] = deals.size();
+        }
+
+        int[] firstMinutes = new int[deals.size()];
+        int[] lastMinutes = new int[deals.size()];
+        for (int ordinal = 0; ordinal < deals.size(); ordinal++) {
+            firstMinutes[ordinal] = deals.get(ordinal).getStartMinute();
+            lastMinutes[ordinal] = deals.get(ordinal).getEndMinute();
+        }
+
+        // Compare the deal windows ordinal by ordinal, and update the timeline with the changed windows only
+        WindowChanges changes = WindowChanges.between(
+                previous.firstMinutes, previous.lastMinutes, firstMinutes, lastMinutes);
+        DealTimeline timeline = previous.timeline.applying(
+                changes.removedFirstMinutes, changes.removedLastMinutes, changes.addedFirstMinutes, changes.addedLastMinutes);
+
+        // Refill the buckets of the minutes covered by a changed window, share the others
+        int[] coverage = new int[MinuteOfDay.MINUTES_PER_DAY + 1];
+        DealTimeline.addWindows(coverage, changes.removedFirstMinutes, changes.removedLastMinutes, 1);
+        DealTimeline.addWindows(coverage, changes.addedFirstMinutes, changes.addedLastMinutes, 1);
+
+        int[][] buckets = new int[MinuteOfDay.MINUTES_PER_DAY][];
+        boolean[] refilled = new boolean[MinuteOfDay.MINUTES_PER_DAY];
+        int covering = 0;
+        for (int minute = 0; minute < MinuteOfDay.MINUTES_PER_DAY; minute++) {
+            covering += coverage[minute];
+            refilled[minute] = covering > 0;
+            buckets[minute] = refilled[minute] ? newBucket(timeline.countAt(minute)) : previous.buckets[minute];
+        }
+
+        int[] nextRefilledMinutes = new int[MinuteOfDay.MINUTES_PER_DAY + 1];
+        nextRefilledMinutes[MinuteOfDay.MINUTES_PER_DAY] = MinuteOfDay.MINUTES_PER_DAY;
+        for (int minute = MinuteOfDay.MINUTES_PER_DAY - 1; minute >= 0; minute--) {
+            nextRefilledMinutes[minute] = refilled[minute] ? minute : nextRefilledMinutes[minute + 1];
+        }
+
+        // Fill the refilled buckets in ordinal order by partitions of the ordinals, visiting only the refilled
+        // minutes of each deal window. Each partition fills the slots after those of the partitions before it.
+        int[][] cursors = partitionCursors(firstMinutes, lastMinutes, pool);
+        pool.run(deals.size(), (partition, from, to) -> {
+            int[] partitionCursors = cursors[partition];
+            for (int ordinal = from; ordinal < to; ordinal++) {
+                for (int minute = nextRefilledMinutes[firstMinutes[ordinal]]; minute <= lastMinutes[ordinal];
+                     minute = nextRefilledMinutes[minute + 1]) {
+                    buckets[minute][partitionCursors[minute]++] = ordinal;
+                }
+            }
+        });
+
+        return new DealSnapshot(restaurants, Collections.unmodifiableList(deals), restaurantDealOffsets,
+                firstMinutes, lastMinutes, timeline, buckets, incrementalBuilds, validation.build());
+    }
+
+    /**
+     * Returns, for each partition of the ordinals, the position of its first ordinal in the bucket of each minute:
+     * the number of deals of the partitions before it active at that minute.
+     */
+    private static int[][] partitionCursors(int[] firstMinutes, int[] lastMinutes, DealBuildPool pool) {
+        int[][] cursors = new int[pool.partitions(firstMinutes.length)][];
+        if (cursors.length == 1) {
+            cursors[0] = new int[MinuteOfDay.MINUTES_PER_DAY];
+            return cursors;
+        }
+
+        // Histogram the deal windows of each partition
+        pool.run(firstMinutes.length, (partition, from, to) -> {
+            int[] counts = new int[MinuteOfDay.MINUTES_PER_DAY + 1];
+            DealTimeline.addWindows(counts, firstMinutes, lastMinutes, from, to, 1);
+            for (int minute = 1; minute < counts.length; minute++) {
+                counts[minute] += counts[minute - 1];
+            }
+            cursors[partition] = counts;
+        });
+
+        // Turn the counts into the number of deals of the partitions before
+        for (int minute = 0; minute < MinuteOfDay.MINUTES_PER_DAY; minute++) {
+            int before = 0;
+            for (int[] partitionCursors : cursors) {
+                int count = partitionCursors[minute];
+                partitionCursors[minute] = before;
+                before += count;
+            }
+        }
+
+        return cursors;
+    }
+
+    private static int[] newBucket(int size) {
+        return size == 0 ? NO_ORDINALS : new int[size];
+    }
+
+    /**
+     * The deal windows that differ between two snapshots at the same ordinal,
+     * including the windows of the ordinals present in one snapshot only.
+     */
+    private record WindowChanges(int[] removedFirstMinutes, int[] removedLastMinutes,
+                                 int[] addedFirstMinutes, int[] addedLastMinutes) {
+
+        private static WindowChanges between(int[] previousFirstMinutes, int[] previousLastMinutes,
+                                             int[] firstMinutes, int[] lastMinutes) {
+            int common = Math.min(previousFirstMinutes.length, firstMinutes.length);
+
+            int changed = 0;
+            for (int ordinal = 0; ordinal < common; ordinal++) {
+                if (previousFirstMinutes[ordinal] != firstMinutes[ordinal]
+                        || previousLastMinutes[ordinal] != lastMinutes[ordinal]) {
+                    changed++;
+                }
+            }
+
+            int[] removedFirstMinutes = new int[changed + previousFirstMinutes.length - common];
+            int[] removedLastMinutes = new int[removedFirstMinutes.length];
+            int[] addedFirstMinutes = new int[changed + firstMinutes.length - common];
+            int[] addedLastMinutes = new int[addedFirstMinutes.length];
+
+            int change = 0;
+            for (int ordinal = 0; ordinal < common; ordinal++) {
+                if (previousFirstMinutes[ordinal] != firstMinutes[ordinal]
+                        || previousLastMinutes[ordinal] != lastMinutes[ordinal]) {
+                    removedFirstMinutes[change] = previousFirstMinutes[ordinal];
+                    removedLastMinutes[change] = previousLastMinutes[ordinal];
+                    addedFirstMinutes[change] = firstMinutes[ordinal];
+                    addedLastMinutes[change] = lastMinutes[ordinal];
+                    change++;
+                }
+            }
+
+            System.arraycopy(previousFirstMinutes, common, removedFirstMinutes, change, previousFirstMinutes.length - common);
+            System.arraycopy(previousLastMinutes, common, removedLastMinutes, change, previousLastMinutes.length - common);
+            System.arraycopy(firstMinutes, common, addedFirstMinutes, change, firstMinutes.length - common);
+            System.arraycopy(lastMinutes, common, addedLastMinutes, change, lastMinutes.length - common);
+
+            return new WindowChanges(removedFirstMinutes, removedLastMinutes, addedFirstMinutes, addedLastMinutes);
+        }
+    }
+
+    /**
+     * Returns the deals active at the given time of day, at minute precision.
+     */
+    public List<Deal> getActiveDeals(LocalTime timeOfDay) {
+        return getActiveDeals(MinuteOfDay.of(timeOfDay));
+    }
+
+    /**
+     * Returns the deals active at the given minute of the day.
+     */
+    public List<Deal> getActiveDeals(int minute) {
+        return toDeals(buckets[minute], 0, buckets[minute].length);
+    }
+
+    /**
+     * Returns the deals active at the given minute of the day, from the given position and up to the given count.
+     */
+    public List<Deal> getActiveDeals(int minute, int offset, int limit) {
+        int[] ordinals = buckets[minute];
+        int from = Math.min(offset, ordinals.length);
+
+        return toDeals(ordinals, from, from + Math.min(limit, ordinals.length - from));
+    }
+
+    /**
+     * Returns the deals active at the given minute of the day and matching the given filter, in catalogue order.
+     * The attribute index answering filters is built on the first filtered query of the snapshot.
+     * <p>
+     * The deals matching the filter are intersected with the active deals of the minute,
+     * by checking the windows of the matching deals or the matching of the active deals, whichever are fewer.
+     */
+    public List<Deal> getActiveDeals(int minute, DealFilter filter) {
+        if (filter.isEmpty()) {
+            return getActiveDeals(minute);
+        }
+
+        DealBitmap matching = getAttributeIndex().find(filter);
+        int[] active = buckets[minute];
+
+        int[] ordinals = new int[Math.min(matching.cardinality(), active.length)];
+        int count = 0;
+        if (matching.cardinality() < active.length) {
+            for (int ordinal : matching.toArray()) {
+                if (firstMinutes[ordinal] <= minute && minute <= lastMinutes[ordinal]) {
+                    ordinals[count++] = ordinal;
+                }
+            }
+        } else {
+            for (int ordinal : active) {
+                if (matching.contains(ordinal)) {
+                    ordinals[count++] = ordinal;
+                }
+            }
+        }
+
+        return toDeals(ordinals, 0, count);
+    }
+
+    /**
+     * Returns the ordinals of the deals active at the given minute of the day, their indexes in {@link #getDeals()},
+     * in ascending order.
+     */
+    public int[] getActiveOrdinals(int minute) {
+        return buckets[minute].clone();
+    }
+
+    /**
+     * Returns the number of deals active at the given minute of the day.
+     */
+    public int countActiveDeals(int minute) {
+        return buckets[minute].length;
+    }
+
+    /**
+     * Returns the deals active during the given range of minutes of the day, both inclusive, in catalogue order.
+     * <p>
+     * Ranges expected to match at least one deal in {@value #SCAN_RATIO}, from the deals active at their ends,
+     * are answered by a {@link DealWindowScan} of every window, which costs less than sorting that many ordinals
+     * found in the interval index. Other ranges are answered by the interval index, built on the first such query
+     * of the snapshot.
+     *
+     * @param mode whether a deal must be active at some minute or at every minute of the range
+     */
+    public List<Deal> getActiveDeals(int fromMinute, int toMinute, DealRangeMode mode) {
+        int maxFirstMinute = mode == DealRangeMode.OVERLAP ? toMinute : fromMinute;
+        int minLastMinute = mode == DealRangeMode.OVERLAP ? fromMinute : toMinute;
+
+        // Overlapping deals include, and containing deals are included in, those active at each end of the range
+        int activeAtFrom = timeline.countAt(fromMinute);
+        int activeAtTo = timeline.countAt(toMinute);
+        int expected = mode == DealRangeMode.OVERLAP
+                ? Math.max(activeAtFrom, activeAtTo)
+                : Math.min(activeAtFrom, activeAtTo);
+
+        int[] ordinals = (long) expected * SCAN_RATIO >= deals.size()
+                ? DealWindowScan.get().find(firstMinutes, lastMinutes, maxFirstMinute, minLastMinute).toArray()
+                : getIntervalIndex().find(maxFirstMinute, minLastMinute);
+
+        return toDeals(ordinals, 0, ordinals.length);
+    }
+
+    private DealIntervalIndex getIntervalIndex() {
+        var index = intervalIndex;
+        if (index == null) {
+            // building twice on concurrent first queries is harmless, both indexes being equal
+            index = DealIntervalIndex.of(firstMinutes, lastMinutes);
+            intervalIndex = index;
+        }
+
+        return index;
+    }
+
+    private DealAttributeIndex getAttributeIndex() {
+        var index = attributeIndex;
+        if (index == null) {
+            // building twice on concurrent first queries is harmless, both indexes being equal
+            index = DealAttributeIndex.of(restaurants, restaurantDealOffsets, deals);
+            attributeIndex = index;
+        }
+
+        return index;
+    }
+
+    private List<Deal> toDeals(int[] ordinals, int from, int to) {
+        Deal[] activeDeals = new Deal[to - from];
+        for (int i = from; i < to; i++) {
+            activeDeals[i - from] = deals.get(ordinals[i]);
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(activeDeals));
+    }
+
+    /**
+     * Returns true if this snapshot was built from the given restaurant list instance.
+     */
+    public boolean isBuiltFrom(List<RestaurantDto> restaurants) {
+        return this.restaurants == restaurants;
+    }
+
+    /**
+     * Returns the version of this snapshot, unique among the snapshots built since the application started.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    List<RestaurantDto> getRestaurants() {
+        return restaurants;
+    }
+
+    public List<Deal> getDeals() {
+        return deals;
+    }
+
+    public DealTimeline getTimeline() {
+        return timeline;
+    }
+
+    public DealValidationReport getValidationReport() {
+        return validationReport;
+    }
+
+}
@@ -0,0 +1,7 @@
+package org.eatclub.challenge.domain.deal;
+
+/**
+ * Published once a new deal snapshot has been built, before it is served.
+ */
+public record DealSnapshotBuiltEvent(DealSnapshot snapshot) {
+}
@@ -0,0 +1,265 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Binary file holding the restaurant catalogue of a deal snapshot, from which the snapshot is rebuilt at startup.
+ * <p>
+ * The file starts with a header: the magic number {@code ECDS}, the format version, the time the snapshot was
+ * saved, and the length and CRC32 checksum of the payload. The payload holds every distinct string once, in a
+ * string table, followed by the restaurants and their deals, which refer to the strings by index and hold their
+ * times as nanoseconds of the day. Files of another format version, truncated or failing their checksum are
+ * rejected.
+ * <p>
+ * Files are written to a temporary file then moved over the previous file, so a crash while saving leaves the
+ * previous file intact. Files are memory-mapped to be read.
+ */
+final class DealSnapshotFile {
+
+    private static final int MAGIC = 0x45434453; // "ECDS"
+
+    static final int FORMAT_VERSION = 1;
+
+    // magic, format version, saved at, payload length, payload checksum
+    private static final int HEADER_BYTES = Integer.BYTES * 2 + Long.BYTES + Integer.BYTES * 2;
+
+    private static final int NULL = -1;
+
+    private DealSnapshotFile() {
+    }
+
+    /**
+     * The contents of a snapshot file.
+     *
+     * @param savedAt     the time the snapshot was saved
+     * @param restaurants the restaurants the snapshot was built from
+     */
+    record Contents(Instant savedAt, List<RestaurantDto> restaurants) {
+    }
+
+    /**
+     * Writes the given restaurants to the given file, replacing it.
+     */
+    static void write(Path file, List<RestaurantDto> restaurants, Instant savedAt) throws IOException {
+        byte[] payload = encode(restaurants);
+        var crc = new CRC32();
+        crc.update(payload);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(savedAt.toEpochMilli())
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .flip();
+
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer body = ByteBuffer.wrap(payload);
+                while (header.hasRemaining() || body.hasRemaining()) {
+                    channel.write(new ByteBuffer[]{header, body});
+                }
+                channel.force(true);
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Reads the given file.
+     *
+     * @throws IOException in case the file cannot be read, or is not a valid snapshot file of the current format
+     */
+    static Contents read(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Invalid snapshot file size " + channel.size() + ".");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a snapshot file.");
+        }
+        int formatVersion = buffer.getInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported snapshot format version " + formatVersion + ".");
+        }
+        Instant savedAt = Instant.ofEpochMilli(buffer.getLong());
+        int payloadLength = buffer.getInt();
+        int checksum = buffer.getInt();
+
+        if (payloadLength != buffer.remaining()) {
+            throw new IOException("Truncated snapshot file.");
+        }
+        var crc = new CRC32();
+        crc.update(buffer.slice());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Snapshot file checksum mismatch.");
+        }
+
+        try {
+            return new Contents(savedAt, decode(buffer));
+        } catch (RuntimeException e) {
+            throw new IOException("Malformed snapshot file.", e);
+        }
+    }
+
+    private static byte[] encode(List<RestaurantDto> restaurants) throws IOException {
+        Map<String, Integer> strings = new LinkedHashMap<>();
+        var body = new ByteArrayOutputStream();
+        var out = new DataOutputStream(body);
+
+        out.writeInt(restaurants.size());
+        for (RestaurantDto restaurant : restaurants) {
+            writeString(out, strings, restaurant.objectId());
+            writeString(out, strings, restaurant.name());
+            writeString(out, strings, restaurant.address1());
+            writeString(out, strings, restaurant.suburb());
+            writeStrings(out, strings, restaurant.cuisines());
+            writeString(out, strings, restaurant.imageLink());
+            writeTime(out, restaurant.open());
+            writeTime(out, restaurant.close());
+
+            if (restaurant.deals() == null) {
+                out.writeInt(NULL);
+                continue;
+            }
+            out.writeInt(restaurant.deals().size());
+            for (DealDto deal : restaurant.deals()) {
+                writeString(out, strings, deal.objectId());
+                writeString(out, strings, deal.discount());
+                writeString(out, strings, deal.dineIn());
+                writeString(out, strings, deal.lightning());
+                writeString(out, strings, deal.qtyLeft());
+                writeTime(out, deal.open());
+                writeTime(out, deal.close());
+                writeTime(out, deal.start());
+                writeTime(out, deal.end());
+            }
+        }
+
+        var payload = new ByteArrayOutputStream(body.size() + strings.size() * 16);
+        var table = new DataOutputStream(payload);
+        table.writeInt(strings.size());
+        for (String string : strings.keySet()) {
+            byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+            table.writeInt(bytes.length);
+            table.write(bytes);
+        }
+        body.writeTo(payload);
+
+        return payload.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, Map<String, Integer> strings, String value)
+            throws IOException {
+        out.writeInt(value == null ? NULL : strings.computeIfAbsent(value, string -> strings.size()));
+    }
+
+    private static void writeStrings(DataOutputStream out, Map<String, Integer> strings, List<String> values)
+            throws IOException {
+        if (values == null) {
+            out.writeInt(NULL);
+            return;
+        }
+
+        out.writeInt(values.size());
+        for (String value : values) {
+            writeString(out, strings, value);
+        }
+    }
+
+    private static void writeTime(DataOutputStream out, LocalTime time) throws IOException {
+        out.writeLong(time == null ? NULL : time.toNanoOfDay());
+    }
+
+    private static List<RestaurantDto> decode(ByteBuffer buffer) {
+        String[] strings = new String[buffer.getInt()];
+        for (int i = 0; i < strings.length; i++) {
+            byte[] bytes = new byte[buffer.getInt()];
+            buffer.get(bytes);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        RestaurantDto[] restaurants = new RestaurantDto[buffer.getInt()];
+        for (int i = 0; i < restaurants.length; i++) {
+            String objectId = readString(buffer, strings);
+            String name = readString(buffer, strings);
+            String address1 = readString(buffer, strings);
+            String suburb = readString(buffer, strings);
+            List<String> cuisines = readStrings(buffer, strings);
+            String imageLink = readString(buffer, strings);
+            LocalTime open = readTime(buffer);
+            LocalTime close = readTime(buffer);
+
+            List<DealDto> deals = null;
+            int dealCount = buffer.getInt();
+            if (dealCount != NULL) {
+                DealDto[] restaurantDeals = new DealDto[dealCount];
+                for (int j = 0; j < dealCount; j++) {
+                    restaurantDeals[j] = new DealDto(readString(buffer, strings), readString(buffer, strings),
+                            readString(buffer, strings), readString(buffer, strings), readString(buffer, strings),
+                            readTime(buffer), readTime(buffer), readTime(buffer), readTime(buffer));
+                }
+                deals = Collections.unmodifiableList(Arrays.asList(restaurantDeals));
+            }
+
+            restaurants[i] = new RestaurantDto(objectId, name, address1, suburb, cuisines, imageLink, open, close, deals);
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(restaurants));
+    }
+
+    private static String readString(ByteBuffer buffer, String[] strings) {
+        int index = buffer.getInt();
+        return index == NULL ? null : strings[index];
+    }
+
+    private static List<String> readStrings(ByteBuffer buffer, String[] strings) {
+        int count = buffer.getInt();
+        if (count == NULL) {
+            return null;
+        }
+
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(readString(buffer, strings));
+        }
+        return Collections.unmodifiableList(values);
+    }
+
+    private static LocalTime readTime(ByteBuffer buffer) {
+        long nanoOfDay = buffer.getLong();
+        return nanoOfDay == NULL ? null : LocalTime.ofNanoOfDay(nanoOfDay);
+    }
+
+}
@@ -0,0 +1,125 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists the last built deal snapshot to a {@link DealSnapshotFile}, so the next start can serve
+ * the last-good catalogue before the external API answers, or while it is down.
+ * <p>
+ * Snapshots are saved on a dedicated thread, in the order they are built, so builds never wait for the disk.
+ * The snapshots still queued are saved when the context is closed.
+ * A snapshot built from the catalogue that was last saved or loaded is not saved again.
+ * Persistence is disabled when no file is configured.
+ */
+@Component
+public class DealSnapshotStore {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DealSnapshotStore.class);
+
+    private static final Duration CLOSE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final Path file;
+    private final Clock clock;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("deal-snapshot-writer").factory());
+
+    private volatile List<RestaurantDto> saved;
+
+    @Autowired
+    public DealSnapshotStore(@Value("${eatclub.deals.snapshot-file:data/deal-snapshot.bin}") String file) {
+        this(file.isBlank() ? null : Path.of(file), Clock.systemUTC());
+    }
+
+    DealSnapshotStore(Path file, Clock clock) {
+        this.file = file;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns a store that neither loads nor saves snapshots.
+     */
+    public static DealSnapshotStore disabled() {
+        return new DealSnapshotStore(null, Clock.systemUTC());
+    }
+
+    /**
+     * Loads the restaurants of the last saved snapshot.
+     *
+     * @return the restaurants, or null if no valid snapshot file exists
+     */
+    public List<RestaurantDto> load() {
+        if (file == null || !Files.exists(file)) {
+            return null;
+        }
+
+        try {
+            var contents = DealSnapshotFile.read(file);
+            LOG.info("Restored {} restaurants from the deal snapshot saved at {}",
+                    contents.restaurants().size(), contents.savedAt());
+
+            saved = contents.restaurants();
+            return contents.restaurants();
+        } catch (IOException e) {
+            LOG.warn("Rejected the deal snapshot file {}: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Queues the given snapshot to be saved after the snapshots submitted before.
+     */
+    public void save(DealSnapshot snapshot) {
+        if (file != null) {
+            executor.execute(() -> write(snapshot));
+        }
+    }
+
+    /**
+     * Saves the snapshots still queued, then stops the writer thread, so the last built snapshot is not lost
+     * when the context is closed. A save that does not complete in time is interrupted, which leaves the previous
+     * file in place since files are replaced atomically.
+     */
+    @PreDestroy
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+                LOG.warn("Interrupted saving the deal snapshot to {}, still saving after {}", file, CLOSE_TIMEOUT);
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void write(DealSnapshot snapshot) {
+        if (snapshot.isBuiltFrom(saved)) {
+            return;
+        }
+
+        try {
+            DealSnapshotFile.write(file, snapshot.getRestaurants(), clock.instant());
+            saved = snapshot.getRestaurants();
+        } catch (IOException e) {
+            LOG.warn("Failed to save the deal snapshot to {}", file, e);
+        }
+    }
+
+}
@@ -0,0 +1,182 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Columnar store of the details of a list of deals.
+ * <p>
+ * Restaurant fields are stored once per restaurant and referenced by index from each deal row,
+ * and deal fields are stored in parallel arrays indexed by the deal row.
+ * Equal strings are deduplicated, so repeated values such as discounts, flags and opening hours
+ * are held once per table, or once per partition of a table filled in parallel.
+ */
+class DealTable {
+
+    // restaurant columns, indexed by restaurant
+    private final String[] restaurantObjectIds;
+    private final String[] restaurantNames;
+    private final String[] restaurantAddresses1;
+    private final String[] restaurantSuburbs;
+    private final String[] restaurantOpens;
+    private final String[] restaurantCloses;
+
+    // deal columns, indexed by deal row
+    private final int[] restaurantIndexes;
+    private final String[] dealObjectIds;
+    private final String[] discounts;
+    private final String[] dineIns;
+    private final String[] lightnings;
+    private final String[] qtyLefts;
+
+    private DealTable(int restaurants, int deals) {
+        restaurantObjectIds = new String[restaurants];
+        restaurantNames = new String[restaurants];
+        restaurantAddresses1 = new String[restaurants];
+        restaurantSuburbs = new String[restaurants];
+        restaurantOpens = new String[restaurants];
+        restaurantCloses = new String[restaurants];
+
+        restaurantIndexes = new int[deals];
+        dealObjectIds = new String[deals];
+        discounts = new String[deals];
+        dineIns = new String[deals];
+        lightnings = new String[deals];
+        qtyLefts = new String[deals];
+    }
+
+    /**
+     * Static factory method to create the table of all the deals of the given restaurants.
+     * Deal rows follow the order of the restaurants and of their deals.
+     */
+    static DealTable of(List<RestaurantDto> restaurants) {
+        return of(restaurants, Deals.dealOffsets(restaurants), DealBuildPool.SEQUENTIAL);
+    }
+
+    /**
+     * Static factory method to create the table of all the deals of the given restaurants, filled by partitions
+     * of the restaurants on the given pool. Strings are deduplicated within each partition.
+     *
+     * @param dealOffsets for each restaurant, the row of its first deal, followed by the number of deals
+     */
+    static DealTable of(List<RestaurantDto> restaurants, int[] dealOffsets, DealBuildPool pool) {
+        DealTable table = new DealTable(restaurants.size(), dealOffsets[restaurants.size()]);
+
+        pool.run(restaurants.size(), (partition, from, to) -> {
+            Map<String, String> strings = new HashMap<>();
+
+            for (int index = from; index < to; index++) {
+                RestaurantDto restaurant = restaurants.get(index);
+                table.setRestaurant(index, restaurant, strings);
+
+                int row = dealOffsets[index];
+                for (DealDto deal : restaurant.deals()) {
+                    table.setDeal(row++, index, deal, strings);
+                }
+            }
+        });
+
+        return table;
+    }
+
+    /**
+     * Static factory method to create the table of a single deal of the given restaurant.
+     */
+    static DealTable of(DealDto deal, RestaurantDto restaurant) {
+        DealTable table = new DealTable(1, 1);
+        Map<String, String> strings = new HashMap<>();
+
+        table.setRestaurant(0, restaurant, strings);
+        table.setDeal(0, 0, deal, strings);
+
+        return table;
+    }
+
+    private void setRestaurant(int index, RestaurantDto restaurant, Map<String, String> strings) {
+        restaurantObjectIds[index] = restaurant.objectId();
+        restaurantNames[index] = restaurant.name();
+        restaurantAddresses1[index] = restaurant.address1();
+        restaurantSuburbs[index] = dedup(restaurant.suburb(), strings);
+        restaurantOpens[index] = dedup(Objects.toString(restaurant.open(), null), strings);
+        restaurantCloses[index] = dedup(Objects.toString(restaurant.close(), null), strings);
+    }
+
+    private void setDeal(int row, int restaurantIndex, DealDto deal, Map<String, String> strings) {
+        restaurantIndexes[row] = restaurantIndex;
+        dealObjectIds[row] = deal.objectId();
+        discounts[row] = dedup(deal.discount(), strings);
+        dineIns[row] = dedup(deal.dineIn(), strings);
+        lightnings[row] = dedup(deal.lightning(), strings);
+        qtyLefts[row] = dedup(String.valueOf(deal.qtyLeft()), strings);
+    }
+
+    private static String dedup(String value, Map<String, String> strings) {
+        if (value == null) {
+            return null;
+        }
+
+        String existing = strings.putIfAbsent(value, value);
+        return existing != null ? existing : value;
+    }
+
+    /**
+     * Returns the details of the deal at the given row.
+     */
+    DealDetails details(int row) {
+        return new DealDetails(this, row);
+    }
+
+    int size() {
+        return dealObjectIds.length;
+    }
+
+    String restaurantObjectId(int row) {
+        return restaurantObjectIds[restaurantIndexes[row]];
+    }
+
+    String restaurantName(int row) {
+        return restaurantNames[restaurantIndexes[row]];
+    }
+
+    String restaurantAddress1(int row) {
+        return restaurantAddresses1[restaurantIndexes[row]];
+    }
+
+    String restaurantSuburb(int row) {
+        return restaurantSuburbs[restaurantIndexes[row]];
+    }
+
+    String restaurantOpen(int row) {
+        return restaurantOpens[restaurantIndexes[row]];
+    }
+
+    String restaurantClose(int row) {
+        return restaurantCloses[restaurantIndexes[row]];
+    }
+
+    String dealObjectId(int row) {
+        return dealObjectIds[row];
+    }
+
+    String discount(int row) {
+        return discounts[row];
+    }
+
+    String dineIn(int row) {
+        return dineIns[row];
+    }
+
+    String lightning(int row) {
+        return lightnings[row];
+    }
+
+    String qtyLeft(int row) {
+        return qtyLefts[row];
+    }
+
+}
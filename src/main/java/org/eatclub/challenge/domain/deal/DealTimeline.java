@@ -0,0 +1,194 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.common.MinuteOfDay;
+import org.eatclub.challenge.common.MinuteWindow;
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable count of the active deals at every minute of the day.
+ * <p>
+ * The timeline is built with a difference array: each deal window adds one at its first minute and
+ * removes one after its last minute, and a single prefix sum over the day yields the per-minute counts.
+ * Building costs O(deals + minutes of the day), independent of the length of the deal windows.
+ * <p>
+ * A timeline can also be updated with the windows of removed and added deals only,
+ * which costs O(changed deals + minutes of the day).
+ * <p>
+ * The counts are run-length encoded into windows of consecutive minutes holding the same count.
+ * The windows and their ranking by count are computed once at build time,
+ * so reading the peak, the top windows or the histogram does not recompute anything.
+ */
+public class DealTimeline {
+
+    private final int[] counts;
+    private final List<Window> windows;
+    private final List<Window> rankedWindows;
+
+    private DealTimeline(int[] counts, List<Window> windows, List<Window> rankedWindows) {
+        this.counts = counts;
+        this.windows = windows;
+        this.rankedWindows = rankedWindows;
+    }
+
+    /**
+     * Static factory method to create the timeline of the given deal windows.
+     *
+     * @param firstMinutes the first active minute of day of each deal
+     * @param lastMinutes  the last active minute of day of each deal, inclusive
+     */
+    static DealTimeline of(int[] firstMinutes, int[] lastMinutes) {
+        return ofCounts(new int[MinuteOfDay.MINUTES_PER_DAY]).applying(new int[0], new int[0], firstMinutes, lastMinutes);
+    }
+
+    /**
+     * Static factory method to create the timeline of the deals of the given restaurants, computing their windows only,
+     * without building the deals. The validation issues of the deals are ignored.
+     *
+     * @throws IllegalArgumentException in case a window is invalid (e.g. invalid restaurant hours)
+     */
+    static DealTimeline of(List<RestaurantDto> restaurants) {
+        int[] dealOffsets = Deals.dealOffsets(restaurants);
+        int[] firstMinutes = new int[dealOffsets[restaurants.size()]];
+        int[] lastMinutes = new int[firstMinutes.length];
+
+        int row = 0;
+        for (RestaurantDto restaurant : restaurants) {
+            for (DealDto deal : restaurant.deals()) {
+                MinuteWindow window = Deal.windowOf(deal, restaurant, issue -> {
+                });
+                firstMinutes[row] = window.getStart();
+                lastMinutes[row] = window.getEnd();
+                row++;
+            }
+        }
+
+        return of(firstMinutes, lastMinutes);
+    }
+
+    /**
+     * Returns the timeline of this timeline's deals without the removed deal windows and with the added ones.
+     * Costs O(changed deals + minutes of the day), independent of the number of deals of this timeline.
+     *
+     * @param removedFirstMinutes the first active minute of day of each removed deal
+     * @param removedLastMinutes  the last active minute of day of each removed deal, inclusive
+     * @param addedFirstMinutes   the first active minute of day of each added deal
+     * @param addedLastMinutes    the last active minute of day of each added deal, inclusive
+     */
+    DealTimeline applying(int[] removedFirstMinutes, int[] removedLastMinutes,
+                          int[] addedFirstMinutes, int[] addedLastMinutes) {
+        int[] differences = new int[MinuteOfDay.MINUTES_PER_DAY + 1];
+        addWindows(differences, removedFirstMinutes, removedLastMinutes, -1);
+        addWindows(differences, addedFirstMinutes, addedLastMinutes, 1);
+
+        int[] updatedCounts = new int[MinuteOfDay.MINUTES_PER_DAY];
+        int difference = 0;
+        for (int minute = 0; minute < MinuteOfDay.MINUTES_PER_DAY; minute++) {
+            difference += differences[minute];
+            updatedCounts[minute] = counts[minute] + difference;
+        }
+
+        return ofCounts(updatedCounts);
+    }
+
+    /**
+     * Adds the given amount at the first minute of each window and removes it after its last minute.
+     */
+    static void addWindows(int[] differences, int[] firstMinutes, int[] lastMinutes, int amount) {
+        addWindows(differences, firstMinutes, lastMinutes, 0, firstMinutes.length, amount);
+    }
+
+    /**
+     * Adds the given amount at the first minute of each window in the given range and removes it after its last minute.
+     */
+    static void addWindows(int[] differences, int[] firstMinutes, int[] lastMinutes, int from, int to, int amount) {
+        for (int i = from; i < to; i++) {
+            if (firstMinutes[i] <= lastMinutes[i]) {
+                differences[firstMinutes[i]] += amount;
+                differences[lastMinutes[i] + 1] -= amount;
+            }
+        }
+    }
+
+    private static DealTimeline ofCounts(int[] counts) {
+        // Run-length encode the day into windows of consecutive minutes with the same count
+        List<Window> windows = new ArrayList<>();
+        int windowStart = 0;
+        for (int minute = 1; minute <= MinuteOfDay.MINUTES_PER_DAY; minute++) {
+            if (minute == MinuteOfDay.MINUTES_PER_DAY || counts[minute] != counts[windowStart]) {
+                windows.add(new Window(
+                        MinuteOfDay.toLocalTime(windowStart), MinuteOfDay.toLocalTime(minute - 1), counts[windowStart]));
+                windowStart = minute;
+            }
+        }
+
+        // Rank the windows with active deals by count, the earliest window first on equal counts
+        List<Window> rankedWindows = windows.stream()
+                .filter(window -> window.count() > 0)
+                .sorted(Comparator.comparingInt(Window::count).reversed())
+                .toList();
+
+        return new DealTimeline(counts, List.copyOf(windows), rankedWindows);
+    }
+
+    /**
+     * Returns the number of deals active at the given minute of the day.
+     */
+    public int countAt(int minuteOfDay) {
+        return counts[minuteOfDay];
+    }
+
+    /**
+     * Returns the start of the first window with the most active deals, or null if there are no deals.
+     */
+    public LocalTime getPeakStart() {
+        return rankedWindows.isEmpty() ? null : rankedWindows.getFirst().start();
+    }
+
+    /**
+     * Returns the end (inclusive) of the first window with the most active deals, or null if there are no deals.
+     */
+    public LocalTime getPeakEnd() {
+        return rankedWindows.isEmpty() ? null : rankedWindows.getFirst().end();
+    }
+
+    /**
+     * Returns the first window with the most active deals, or null if there are no deals.
+     */
+    public Window getPeakWindow() {
+        return rankedWindows.isEmpty() ? null : rankedWindows.getFirst();
+    }
+
+    /**
+     * Returns up to k non-overlapping windows with the most active deals, ordered by count.
+     * Windows with the same count are ordered by start time. The first window is the peak window.
+     *
+     * @throws IllegalArgumentException in case k is not positive
+     */
+    public List<Window> getTopWindows(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("The number of windows must be positive, but was " + k + ".");
+        }
+
+        return rankedWindows.subList(0, Math.min(k, rankedWindows.size()));
+    }
+
+    /**
+     * Returns the run-length encoded count of the active deals, covering the whole day in time order.
+     */
+    public List<Window> getWindows() {
+        return windows;
+    }
+
+    /**
+     * A window of consecutive minutes, both ends inclusive, during which the same number of deals are active.
+     */
+    public record Window(LocalTime start, LocalTime end, int count) {
+    }
+
+}
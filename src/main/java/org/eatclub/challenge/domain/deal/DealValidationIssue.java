@@ -0,0 +1,18 @@
+package org.eatclub.challenge.domain.deal;
+
+/**
+ * A deal built with a restaurant hour instead of its missing or invalid time.
+ *
+ * @param restaurantId  the objectId of the restaurant of the deal
+ * @param dealId        the objectId of the deal
+ * @param type          the invalid time of the deal
+ * @param fallbackValue the restaurant hour used instead, in HH:mm format
+ */
+public record DealValidationIssue(String restaurantId, String dealId, Type type, String fallbackValue) {
+
+    public enum Type {
+        INVALID_START_TIME,
+        INVALID_END_TIME
+    }
+
+}
@@ -0,0 +1,90 @@
+package org.eatclub.challenge.domain.deal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Immutable, deduplicated report of the validation issues of the deals of a snapshot.
+ * <p>
+ * Equal issues, such as those of a deal listed twice in the catalogue, are reported once with their number of
+ * occurrences. Issues are kept in the order they were first found.
+ */
+public final class DealValidationReport {
+
+    private static final DealValidationReport EMPTY = new DealValidationReport(Collections.emptyMap());
+
+    private final Map<DealValidationIssue, Integer> occurrences;
+
+    private DealValidationReport(Map<DealValidationIssue, Integer> occurrences) {
+        this.occurrences = occurrences;
+    }
+
+    public static DealValidationReport empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Returns the distinct issues of the report.
+     */
+    public List<DealValidationIssue> getIssues() {
+        return List.copyOf(occurrences.keySet());
+    }
+
+    /**
+     * Returns the number of times the given issue was found, or 0 if it is not part of the report.
+     */
+    public int getOccurrences(DealValidationIssue issue) {
+        return occurrences.getOrDefault(issue, 0);
+    }
+
+    /**
+     * Returns the distinct issues of this report that are not part of the given report.
+     */
+    public List<DealValidationIssue> getIssuesNotIn(DealValidationReport other) {
+        List<DealValidationIssue> issues = new ArrayList<>();
+        for (DealValidationIssue issue : occurrences.keySet()) {
+            if (!other.occurrences.containsKey(issue)) {
+                issues.add(issue);
+            }
+        }
+        return issues;
+    }
+
+    public boolean isEmpty() {
+        return occurrences.isEmpty();
+    }
+
+    /**
+     * Collects the issues of a snapshot into a {@link DealValidationReport}.
+     */
+    static final class Builder {
+
+        private final Map<DealValidationIssue, Integer> occurrences = new LinkedHashMap<>();
+
+        void add(DealValidationIssue issue) {
+            occurrences.merge(issue, 1, Integer::sum);
+        }
+
+        /**
+         * Adds the issues of the given report accepted by the given predicate, with their occurrences.
+         */
+        void addAll(DealValidationReport report, Predicate<DealValidationIssue> accepted) {
+            report.occurrences.forEach((issue, count) -> {
+                if (accepted.test(issue)) {
+                    occurrences.merge(issue, count, Integer::sum);
+                }
+            });
+        }
+
+        DealValidationReport build() {
+            return occurrences.isEmpty()
+                    ? EMPTY
+                    : new DealValidationReport(Collections.unmodifiableMap(new LinkedHashMap<>(occurrences)));
+        }
+    }
+
+}
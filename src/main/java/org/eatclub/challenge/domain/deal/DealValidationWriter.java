@@ -0,0 +1,52 @@
+package org.eatclub.challenge.domain.deal;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Writes the validation reports of the deal snapshots on a dedicated thread, so snapshot builds never wait
+ * for the deal log.
+ * <p>
+ * Reports are written in the order they are submitted, and each report logs only the issues that were not
+ * part of the last written report. An invalid deal is therefore logged once when it appears in the catalogue,
+ * rather than on every build or request, and again only if it is fixed and later broken.
+ */
+class DealValidationWriter {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("deal-validation-writer").factory());
+
+    private final DealLogger dealLogger;
+
+    // read and written by the writer thread only
+    private DealValidationReport written = DealValidationReport.empty();
+
+    DealValidationWriter(DealLogger dealLogger) {
+        this.dealLogger = dealLogger;
+    }
+
+    /**
+     * Queues the given report to be written after the reports submitted before.
+     */
+    void submit(DealValidationReport report) {
+        executor.execute(() -> write(report));
+    }
+
+    /**
+     * Writes the reports still queued, then stops the writer thread.
+     */
+    void close() {
+        executor.close();
+    }
+
+    /**
+     * Logs the issues of the given report that were not part of the last written report.
+     */
+    void write(DealValidationReport report) {
+        for (DealValidationIssue issue : report.getIssuesNotIn(written)) {
+            dealLogger.log(issue);
+        }
+        written = report;
+    }
+
+}
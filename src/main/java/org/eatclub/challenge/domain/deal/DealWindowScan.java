@@ -0,0 +1,100 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Linear scan of the deal windows of a snapshot for the deals starting at or before a minute and ending at or after
+ * another minute: the deals active at a minute, overlapping a range or containing a range.
+ * <p>
+ * The windows are compared one by one, without branching, into the words of a {@link DealBitmap}, so the matching
+ * ordinals come out in catalogue order without sorting. When the incubating {@code jdk.incubator.vector} module is
+ * added to the JVM ({@code --add-modules jdk.incubator.vector}), {@link #get()} returns a {@link VectorDealWindowScan}
+ * comparing the windows of several deals per instruction, and the scalar scan otherwise.
+ */
+class DealWindowScan {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DealWindowScan.class);
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /**
+     * The scan comparing the windows one by one, available on every JVM.
+     */
+    static final DealWindowScan SCALAR = new DealWindowScan();
+
+    private static final DealWindowScan VECTOR = loadVectorScan();
+
+    DealWindowScan() {
+    }
+
+    private static DealWindowScan loadVectorScan() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            LOG.info("Module {} not added to the JVM, deal windows are scanned one by one", VECTOR_MODULE);
+            return null;
+        }
+
+        try {
+            var scan = new VectorDealWindowScan();
+            LOG.info("Deal windows are scanned {} at a time", scan.lanes());
+            return scan;
+        } catch (LinkageError | RuntimeException e) {
+            LOG.warn("Failed to load the vectorised deal window scan, deal windows are scanned one by one", e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the vectorised scan when the Vector API is available, and the scalar scan otherwise.
+     */
+    static DealWindowScan get() {
+        return VECTOR != null ? VECTOR : SCALAR;
+    }
+
+    /**
+     * Returns the vectorised scan, or null when the Vector API is not available.
+     */
+    static DealWindowScan vectorised() {
+        return VECTOR;
+    }
+
+    /**
+     * Returns the deals starting at or before the given first minute and ending at or after the given last minute.
+     *
+     * @param firstMinutes the first active minute of day of each deal, the deal ordinal being the array index
+     * @param lastMinutes  the last active minute of day of each deal, inclusive
+     */
+    final DealBitmap find(int[] firstMinutes, int[] lastMinutes, int maxFirstMinute, int minLastMinute) {
+        long[] words = new long[(firstMinutes.length + 63) >>> 6];
+        scan(firstMinutes, lastMinutes, maxFirstMinute, minLastMinute, words);
+
+        return DealBitmap.ofWords(firstMinutes.length, words);
+    }
+
+    /**
+     * Sets the bits of the matching deals in the given words.
+     */
+    void scan(int[] firstMinutes, int[] lastMinutes, int maxFirstMinute, int minLastMinute, long[] words) {
+        scanScalar(firstMinutes, lastMinutes, maxFirstMinute, minLastMinute, words, 0);
+    }
+
+    /**
+     * Sets the bits of the matching deals from the given ordinal, a multiple of 64, in the given words.
+     */
+    static void scanScalar(int[] firstMinutes, int[] lastMinutes, int maxFirstMinute, int minLastMinute, long[] words,
+                           int from) {
+        for (int word = from >>> 6; word < words.length; word++) {
+            int base = word << 6;
+            int end = Math.min(base + 64, firstMinutes.length);
+
+            long bits = 0;
+            for (int ordinal = base; ordinal < end; ordinal++) {
+                // 1 if first <= max and last >= min, from the sign bits of the differences
+                long matches = ~((long) maxFirstMinute - firstMinutes[ordinal] | (long) lastMinutes[ordinal] - minLastMinute);
+                bits |= (matches >>> 63) << (ordinal - base);
+            }
+            words[word] = bits;
+        }
+    }
+
+}
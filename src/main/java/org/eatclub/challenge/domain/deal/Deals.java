@@ -1,21 +1,70 @@
 package org.eatclub.challenge.domain.deal;
 
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
 import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
 
 public class Deals {
 
     /**
      * Factory method to create a list of deals from a list of restaurants DTOs.
+     * The details of all the deals are stored in a single {@link DealTable}.
+     * Validation issues are logged by the {@link DealLogger} once the deals are built.
      */
     public static List<Deal> fromRestaurants(List<RestaurantDto> restaurants) {
-        return restaurants.stream()
-                .flatMap(restaurant -> restaurant.deals().stream()
-                        .map(deal -> Map.entry(deal, restaurant))
-                ).map(entry -> Deal.of(entry.getKey(), entry.getValue()))
-                .toList();
+        var dealLogger = new DealLogger();
+        return fromRestaurants(restaurants, dealLogger::log, DealBuildPool.shared());
+    }
+
+    /**
+     * Factory method to create a list of deals from a list of restaurants DTOs,
+     * passing the validation issues of the deals to the given consumer.
+     * <p>
+     * The deals are built by partitions of the restaurants on the given pool, and the issues of each partition
+     * are passed on in partition order, so the deals and the issues are in catalogue order whatever the pool.
+     */
+    static List<Deal> fromRestaurants(List<RestaurantDto> restaurants, Consumer<DealValidationIssue> issues,
+                                      DealBuildPool pool) {
+        int[] dealOffsets = dealOffsets(restaurants);
+        DealTable table = DealTable.of(restaurants, dealOffsets, pool);
+        Deal[] deals = new Deal[table.size()];
+
+        List<List<DealValidationIssue>> partitionIssues = new ArrayList<>(
+                Collections.nCopies(pool.partitions(restaurants.size()), List.of()));
+        pool.run(restaurants.size(), (partition, from, to) -> {
+            List<DealValidationIssue> found = new ArrayList<>();
+
+            for (int index = from; index < to; index++) {
+                RestaurantDto restaurant = restaurants.get(index);
+                int row = dealOffsets[index];
+                for (DealDto deal : restaurant.deals()) {
+                    deals[row] = Deal.of(deal, restaurant, table.details(row), found::add);
+                    row++;
+                }
+            }
+
+            partitionIssues.set(partition, found);
+        });
+
+        partitionIssues.forEach(found -> found.forEach(issues));
+        return Collections.unmodifiableList(Arrays.asList(deals));
+    }
+
+    /**
+     * Returns, for each restaurant, the row of its first deal in catalogue order, followed by the number of deals.
+     */
+    static int[] dealOffsets(List<RestaurantDto> restaurants) {
+        int[] dealOffsets = new int[restaurants.size() + 1];
+        for (int index = 0; index < restaurants.size(); index++) {
+            dealOffsets[index + 1] = dealOffsets[index] + restaurants.get(index).deals().size();
+        }
+
+        return dealOffsets;
     }
 
 }
@@ -0,0 +1,51 @@
+package org.eatclub.challenge.domain.deal;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * {@link DealWindowScan} comparing the windows of as many deals as the preferred vector shape of the CPU holds
+ * per instruction (8 with AVX2, 16 with AVX-512), with the incubating Vector API.
+ * <p>
+ * Each 64 deals are compared in 64 / lanes steps, whose lane masks are shifted into one word of the bitmap.
+ * The deals after the last full word are compared one by one. Loaded by {@link DealWindowScan#get()} only when
+ * the {@code jdk.incubator.vector} module is added to the JVM.
+ */
+final class VectorDealWindowScan extends DealWindowScan {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    VectorDealWindowScan() {
+        if (SPECIES.length() > 64 || 64 % SPECIES.length() != 0) {
+            throw new IllegalStateException("Unsupported vector species " + SPECIES + ".");
+        }
+    }
+
+    int lanes() {
+        return SPECIES.length();
+    }
+
+    @Override
+    void scan(int[] firstMinutes, int[] lastMinutes, int maxFirstMinute, int minLastMinute, long[] words) {
+        int fullWords = firstMinutes.length >>> 6;
+        int lanes = SPECIES.length();
+
+        for (int word = 0; word < fullWords; word++) {
+            int base = word << 6;
+
+            long bits = 0;
+            for (int lane = 0; lane < 64; lane += lanes) {
+                var startsInTime = IntVector.fromArray(SPECIES, firstMinutes, base + lane)
+                        .compare(VectorOperators.LE, maxFirstMinute);
+                var endsInTime = IntVector.fromArray(SPECIES, lastMinutes, base + lane)
+                        .compare(VectorOperators.GE, minLastMinute);
+                bits |= startsInTime.and(endsInTime).toLong() << lane;
+            }
+            words[word] = bits;
+        }
+
+        scanScalar(firstMinutes, lastMinutes, maxFirstMinute, minLastMinute, words, fullWords << 6);
+    }
+
+}
@@ -0,0 +1,47 @@
+package org.eatclub.challenge.domain.restaurant;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts the outcomes of the restaurant catalogue refreshes.
+ */
+public class CatalogueRefreshCounters {
+
+    private final AtomicLong notModified = new AtomicLong();
+    private final AtomicLong unchangedContent = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+
+    void recordNotModified() {
+        notModified.incrementAndGet();
+    }
+
+    void recordUnchangedContent() {
+        unchangedContent.incrementAndGet();
+    }
+
+    void recordRebuild() {
+        rebuilds.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of refreshes answered with 304 Not Modified by the external API.
+     */
+    public long getNotModified() {
+        return notModified.get();
+    }
+
+    /**
+     * Returns the number of refreshes whose downloaded content hash matched the current catalogue.
+     */
+    public long getUnchangedContent() {
+        return unchangedContent.get();
+    }
+
+    /**
+     * Returns the number of refreshes that deserialised and swapped in a new catalogue.
+     */
+    public long getRebuilds() {
+        return rebuilds.get();
+    }
+
+}
@@ -0,0 +1,184 @@
+package org.eatclub.challenge.domain.restaurant;
+
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A single source of the restaurant catalogue, holding the last catalogue successfully fetched from it.
+ * <p>
+ * Fetches are conditional (If-None-Match / If-Modified-Since). A payload that is not modified,
+ * or whose content hash matches the last fetched catalogue, keeps the last fetched catalogue instance
+ * without being parsed.
+ * A failed fetch keeps the last fetched catalogue until it is older than the maximum staleness of the source.
+ */
+class CatalogueSource {
+
+    private static final Logger LOG = LoggerFactory.getLogger(CatalogueSource.class);
+
+    private final String name;
+    private final String url;
+    private final Duration maxStaleness;
+    private final RestTemplate restTemplate;
+    private final RestaurantCatalogueReader catalogueReader;
+    private final CatalogueRefreshCounters refreshCounters;
+    private final Clock clock;
+
+    private final AtomicReference<List<RestaurantDto>> restaurants = new AtomicReference<>();
+    private final AtomicReference<CatalogueVersion> catalogueVersion = new AtomicReference<>();
+
+    private volatile Instant lastSuccess;
+    private volatile Instant lastFailure;
+    private volatile RuntimeException lastError;
+
+    CatalogueSource(String name, String url, Duration maxStaleness, RestTemplate restTemplate,
+                    RestaurantCatalogueReader catalogueReader, CatalogueRefreshCounters refreshCounters, Clock clock) {
+        this.name = name;
+        this.url = url;
+        this.maxStaleness = maxStaleness;
+        this.restTemplate = restTemplate;
+        this.catalogueReader = catalogueReader;
+        this.refreshCounters = refreshCounters;
+        this.clock = clock;
+    }
+
+    /**
+     * Fetches the catalogue of the source, recording the failure instead of throwing it.
+     *
+     * @return true if the catalogue was fetched
+     */
+    boolean refresh() {
+        try {
+            restaurants.set(fetchRestaurants());
+            lastSuccess = clock.instant();
+            return true;
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to fetch restaurants from source {} at {}: {}", name, url, e.toString());
+            lastFailure = clock.instant();
+            lastError = e;
+            return false;
+        }
+    }
+
+    /**
+     * Returns the last catalogue fetched from the source,
+     * or an empty catalogue if none was fetched or if it is older than the maximum staleness.
+     */
+    List<RestaurantDto> getRestaurants() {
+        List<RestaurantDto> current = restaurants.get();
+        return current == null || isStale() ? List.of() : current;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    RuntimeException getLastError() {
+        return lastError;
+    }
+
+    CatalogueSourceStatus getStatus() {
+        RuntimeException error = lastError;
+        return new CatalogueSourceStatus(name, url, getRestaurants().size(), lastSuccess, lastFailure,
+                error != null ? error.getMessage() : null, isStale());
+    }
+
+    private boolean isStale() {
+        Instant success = lastSuccess;
+        return success != null && Duration.between(success, clock.instant()).compareTo(maxStaleness) > 0;
+    }
+
+    private List<RestaurantDto> fetchRestaurants() {
+        LOG.debug("Fetching restaurants from source {} at {}", name, url);
+
+        CatalogueVersion current = catalogueVersion.get();
+
+        return restTemplate.execute(url, HttpMethod.GET,
+                request -> {
+                    if (current != null) {
+                        request.getHeaders().putAll(current.conditionalHeaders());
+                    }
+                },
+                response -> readRestaurants(response, current));
+    }
+
+    /**
+     * Reads the restaurants of the response, unless its content hash matches the last fetched catalogue.
+     * <p>
+     * Once a catalogue has been fetched, the body is read and hashed before it is parsed, so an unchanged catalogue
+     * is never parsed. The first catalogue has nothing to be compared with, so its restaurants are streamed
+     * while the body is hashed.
+     */
+    private List<RestaurantDto> readRestaurants(ClientHttpResponse response, CatalogueVersion current) throws IOException {
+        if (current != null && response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            LOG.debug("Restaurants of source {} not modified since the last fetch", name);
+            refreshCounters.recordNotModified();
+            return restaurants.get();
+        }
+
+        var headers = response.getHeaders();
+        List<RestaurantDto> read = new ArrayList<>();
+
+        if (current == null) {
+            MessageDigest digest = sha256();
+            try (InputStream body = new DigestInputStream(response.getBody(), digest)) {
+                catalogueReader.read(body, read::add);
+                body.transferTo(OutputStream.nullOutputStream()); // hash any trailing bytes
+            }
+
+            catalogueVersion.set(new CatalogueVersion(headers.getETag(), headers.getLastModified(),
+                    HexFormat.of().formatHex(digest.digest())));
+            refreshCounters.recordRebuild();
+            return Collections.unmodifiableList(read);
+        }
+
+        byte[] body;
+        try (InputStream in = response.getBody()) {
+            body = in.readAllBytes();
+        }
+        var version = new CatalogueVersion(headers.getETag(), headers.getLastModified(),
+                HexFormat.of().formatHex(sha256().digest(body)));
+
+        if (current.contentHash().equals(version.contentHash())) {
+            LOG.debug("Restaurants content of source {} unchanged since the last fetch", name);
+            catalogueVersion.set(version);
+            refreshCounters.recordUnchangedContent();
+            return restaurants.get();
+        }
+
+        catalogueReader.read(new ByteArrayInputStream(body), read::add);
+        catalogueVersion.set(version);
+        refreshCounters.recordRebuild();
+
+        return Collections.unmodifiableList(read);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+}
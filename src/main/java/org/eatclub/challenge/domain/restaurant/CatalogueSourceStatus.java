@@ -0,0 +1,25 @@
+package org.eatclub.challenge.domain.restaurant;
+
+import java.time.Instant;
+
+/**
+ * The freshness of a restaurant catalogue source.
+ *
+ * @param name        the name of the source
+ * @param url         the URL of the source
+ * @param restaurants the number of restaurants the source contributes to the catalogue
+ * @param lastSuccess the time of the last successful fetch, or null if none
+ * @param lastFailure the time of the last failed fetch, or null if none
+ * @param lastError   the error of the last failed fetch, or null if none
+ * @param stale       true if the last successful fetch is older than the maximum staleness of the source
+ */
+public record CatalogueSourceStatus(
+        String name,
+        String url,
+        int restaurants,
+        Instant lastSuccess,
+        Instant lastFailure,
+        String lastError,
+        boolean stale
+) {
+}
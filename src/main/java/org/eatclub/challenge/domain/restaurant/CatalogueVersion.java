@@ -0,0 +1,27 @@
+package org.eatclub.challenge.domain.restaurant;
+
+import org.springframework.http.HttpHeaders;
+
+/**
+ * Identifies the version of the restaurant catalogue currently served.
+ *
+ * @param etag         the ETag of the response the catalogue was fetched from, if any
+ * @param lastModified the Last-Modified date of that response in epoch millis, or -1 if none
+ * @param contentHash  the SHA-256 hash of the response body
+ */
+record CatalogueVersion(String etag, long lastModified, String contentHash) {
+
+    /**
+     * Returns the headers making the next fetch conditional on the catalogue having changed.
+     */
+    HttpHeaders conditionalHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        if (etag != null) {
+            headers.setIfNoneMatch(etag);
+        }
+        if (lastModified >= 0) {
+            headers.setIfModifiedSince(lastModified);
+        }
+        return headers;
+    }
+}
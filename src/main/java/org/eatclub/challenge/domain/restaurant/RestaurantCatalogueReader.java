@@ -0,0 +1,67 @@
+package org.eatclub.challenge.domain.restaurant;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader of the restaurant catalogue of the external API.
+ * <p>
+ * Reads the {@code restaurants} array one restaurant at a time with a {@link JsonParser},
+ * handing each restaurant to a consumer as soon as it is parsed. Neither the response body
+ * nor the enclosing response object are ever held in memory as a whole.
+ */
+public class RestaurantCatalogueReader {
+
+    private static final String RESTAURANTS_FIELD = "restaurants";
+
+    private final ObjectReader restaurantReader;
+
+    public RestaurantCatalogueReader(ObjectMapper objectMapper) {
+        this.restaurantReader = objectMapper.readerFor(RestaurantDto.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Reads the restaurants of the given catalogue stream, in order.
+     * The stream is not closed, and is not read past the end of the catalogue object.
+     *
+     * @param catalogue the JSON catalogue, an object holding a {@code restaurants} array
+     * @param consumer  the consumer receiving each restaurant
+     * @throws IOException in case the stream cannot be read or is not a valid catalogue
+     */
+    public void read(InputStream catalogue, Consumer<RestaurantDto> consumer) throws IOException {
+        try (JsonParser parser = restaurantReader.createParser(catalogue)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+
+            JsonToken token = parser.nextToken();
+            if (token == null) {
+                return; // empty body
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IOException("Expected the catalogue to be a JSON object but found " + token);
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if (RESTAURANTS_FIELD.equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        consumer.accept(restaurantReader.readValue(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+}
@@ -1,22 +1,51 @@
 package org.eatclub.challenge.domain.restaurant;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.eatclub.challenge.config.CatalogueProperties;
 import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
-import org.eatclub.challenge.domain.restaurant.dto.RestaurantResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.http.ResponseEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import java.time.LocalTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
 
+/**
+ * Service holding the restaurant catalogue of the external API.
+ * <p>
+ * The catalogue is refreshed in the background every 5 minutes and swapped atomically,
+ * so requests are always served from the last fetched catalogue without waiting for the external API.
+ * A failed refresh keeps the previous catalogue. Concurrent loads are coalesced into a single fetch.
+ * <p>
+ * The catalogue is merged from one or more sources (see {@link CatalogueProperties}), fetched in parallel.
+ * A restaurant is taken from the first source providing its objectId. A failing source contributes its last
+ * fetched catalogue, until it is older than the maximum staleness of the source, and the refresh only fails
+ * when every source fails. A catalogue whose sources are all unchanged keeps the current catalogue instance.
+ * <p>
+ * A catalogue restored from disk at startup is served until the first catalogue is fetched.
+ * <p>
+ * The latency of each source fetch is recorded by the {@code eatclub.catalogue.fetch} timer.
+ */
 @Service
 @EnableScheduling
 public class RestaurantService {
@@ -25,35 +54,235 @@ public class RestaurantService {
 
     private static final String URL = "https://eccdn.com.au/misc/challengedata.json";
 
-    private static final long CACHE_EVICT_SECONDS = 300;
+    private static final long REFRESH_SECONDS = 300;
 
-    private final RestTemplate restTemplate;
+    private static final Duration DEFAULT_MAX_STALENESS = Duration.ofHours(1);
 
-    public RestaurantService(RestTemplate restTemplate) {
-        this.restTemplate = restTemplate;
+    private final List<CatalogueSource> sources;
+    private final ExecutorService fetchExecutor;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicReference<Catalogue> catalogue = new AtomicReference<>();
+    private final AtomicReference<CompletableFuture<List<RestaurantDto>>> inFlightLoad = new AtomicReference<>();
+    private final CatalogueRefreshCounters refreshCounters = new CatalogueRefreshCounters();
+
+    @Autowired
+    public RestaurantService(RestTemplate restTemplate, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                             CatalogueProperties properties, MeterRegistry meterRegistry) {
+        this(restTemplate, objectMapper, eventPublisher, properties, Clock.systemUTC(), meterRegistry);
+    }
+
+    RestaurantService(RestTemplate restTemplate, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                      String url) {
+        this(restTemplate, objectMapper, eventPublisher,
+                new CatalogueProperties(1, List.of(new CatalogueProperties.Source("test", url, DEFAULT_MAX_STALENESS))),
+                Clock.systemUTC(), new SimpleMeterRegistry());
+    }
+
+    RestaurantService(RestTemplate restTemplate, ObjectMapper objectMapper, ApplicationEventPublisher eventPublisher,
+                      CatalogueProperties properties, Clock clock, MeterRegistry meterRegistry) {
+        var catalogueReader = new RestaurantCatalogueReader(objectMapper);
+        var configuredSources = properties.sources().isEmpty()
+                ? List.of(new CatalogueProperties.Source("eatclub", URL, DEFAULT_MAX_STALENESS))
+                : properties.sources();
+
+        this.sources = configuredSources.stream()
+                .map(source -> new CatalogueSource(source.name(), source.url(), source.maxStaleness(),
+                        restTemplate, catalogueReader, refreshCounters, clock))
+                .toList();
+        this.fetchExecutor = Executors.newFixedThreadPool(Math.max(1, properties.fetchConcurrency()),
+                Thread.ofVirtual().name("catalogue-fetch-", 0).factory());
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
     }
 
     /**
-     * Fetches the list of restaurants from the external API.
-     * Caches the result for 5 minutes.
-     *
-     * @return
+     * Returns the current restaurant catalogue.
+     * Only waits for the external API when no catalogue has been fetched yet.
      */
-    @Cacheable("restaurants")
     public List<RestaurantDto> getRestaurants() {
-        LOG.debug("Fetching restaurants from external API at {}", LocalTime.now());
+        Catalogue current = catalogue.get();
+        if (current != null) {
+            return current.restaurants();
+        }
+
+        try {
+            return load().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Serves the given restaurants, e.g. restored from disk at startup, until a catalogue is fetched.
+     *
+     * @return true if the restaurants are served, false if a catalogue has already been fetched
+     */
+    public boolean restore(List<RestaurantDto> restaurants) {
+        return catalogue.compareAndSet(null, new Catalogue(List.of(), restaurants));
+    }
+
+    /**
+     * Refreshes the restaurant catalogue in the background, starting at application startup.
+     * The previous catalogue keeps being served if the refresh fails.
+     */
+    @Scheduled(fixedRate = REFRESH_SECONDS * 1000)
+    public void refreshRestaurants() {
+        try {
+            load().join();
+        } catch (CompletionException e) {
+            LOG.warn("Failed to refresh restaurants, serving the previous catalogue", e.getCause());
+        }
+    }
+
+    /**
+     * Stops the fetch threads when the context is closed, interrupting the fetches in flight.
+     * Later refreshes fail, and the current catalogue keeps being served.
+     */
+    @PreDestroy
+    public void shutdown() {
+        fetchExecutor.shutdownNow();
+    }
+
+    public CatalogueRefreshCounters getRefreshCounters() {
+        return refreshCounters;
+    }
+
+    /**
+     * Returns the freshness of each catalogue source, in merge order.
+     */
+    public List<CatalogueSourceStatus> getSourceStatuses() {
+        return sources.stream().map(CatalogueSource::getStatus).toList();
+    }
 
-        ResponseEntity<RestaurantResponse> response = restTemplate.getForEntity(URL, RestaurantResponse.class);
-        Optional<RestaurantResponse> result = Optional.ofNullable(response.getBody());
+    /**
+     * Fetches the catalogue and swaps it in, unless a fetch is already in flight in which case its result is shared.
+     */
+    private CompletableFuture<List<RestaurantDto>> load() {
+        CompletableFuture<List<RestaurantDto>> pending = new CompletableFuture<>();
+        CompletableFuture<List<RestaurantDto>> inFlight = inFlightLoad.compareAndExchange(null, pending);
+        if (inFlight != null) {
+            return inFlight;
+        }
 
-        return result.map(RestaurantResponse::restaurants)
-                .orElse(Collections.emptyList());
+        Catalogue previous = catalogue.get();
+        Catalogue fetched;
+        try {
+            fetched = fetchCatalogue(previous);
+            catalogue.set(fetched);
+            pending.complete(fetched.restaurants());
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            return pending;
+        } finally {
+            inFlightLoad.set(null);
+        }
+
+        if (fetched != previous) {
+            eventPublisher.publishEvent(new RestaurantsRefreshedEvent(fetched.restaurants()));
+        }
+        return pending;
     }
 
-    @Scheduled(fixedRate = CACHE_EVICT_SECONDS * 1000)
-    @CacheEvict(value = "restaurants", allEntries = true)
-    public void evictRestaurantsCache() {
-        LOG.debug("Evicted restaurant cache at {}", LocalTime.now());
+    /**
+     * Fetches every source in parallel and merges their catalogues.
+     *
+     * @return the previous catalogue if no source changed, or the newly merged catalogue
+     * @throws RuntimeException the error of the source, or of this refresh of the sources, in case every source failed
+     */
+    private Catalogue fetchCatalogue(Catalogue previous) {
+        List<CompletableFuture<Boolean>> refreshes = sources.stream()
+                .map(source -> CompletableFuture.supplyAsync(() -> refreshTimed(source), fetchExecutor))
+                .toList();
+
+        boolean anyFetched = false;
+        for (CompletableFuture<Boolean> refresh : refreshes) {
+            anyFetched |= refresh.join();
+        }
+
+        if (!anyFetched) {
+            throw sourcesFailure();
+        }
+
+        List<List<RestaurantDto>> parts = sources.stream().map(CatalogueSource::getRestaurants).toList();
+        if (previous != null && previous.isMergedFrom(parts)) {
+            return previous;
+        }
+
+        return new Catalogue(parts, merge(parts));
+    }
+
+    /**
+     * Returns the error of a refresh in which every source failed. The error of a single source is returned as is,
+     * and the errors of several sources are attached to a new error of this refresh, so they never accumulate
+     * on the errors the sources keep.
+     */
+    private RuntimeException sourcesFailure() {
+        if (sources.size() == 1) {
+            return sources.getFirst().getLastError();
+        }
+
+        var error = new RestClientException("Failed to fetch restaurants from every catalogue source",
+                sources.getFirst().getLastError());
+        sources.stream().skip(1).forEach(source -> error.addSuppressed(source.getLastError()));
+        return error;
+    }
+
+    private boolean refreshTimed(CatalogueSource source) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean fetched = source.refresh();
+        sample.stop(meterRegistry.timer("eatclub.catalogue.fetch",
+                "source", source.getName(), "outcome", fetched ? "success" : "failure"));
+
+        return fetched;
+    }
+
+    /**
+     * Merges the catalogues of the sources, in order, skipping the restaurants whose objectId
+     * is already provided by a previous source. A single catalogue is returned as is.
+     */
+    private static List<RestaurantDto> merge(List<List<RestaurantDto>> parts) {
+        if (parts.size() == 1) {
+            return parts.getFirst();
+        }
+
+        List<RestaurantDto> merged = new ArrayList<>();
+        Set<String> mergedObjectIds = new HashSet<>();
+        for (List<RestaurantDto> part : parts) {
+            List<String> partObjectIds = new ArrayList<>(part.size());
+            for (RestaurantDto restaurant : part) {
+                if (restaurant.objectId() == null || !mergedObjectIds.contains(restaurant.objectId())) {
+                    merged.add(restaurant);
+                    partObjectIds.add(restaurant.objectId());
+                }
+            }
+            mergedObjectIds.addAll(partObjectIds);
+        }
+
+        return Collections.unmodifiableList(merged);
+    }
+
+    /**
+     * The merged restaurant catalogue, along with the catalogue instances of the sources it was merged from.
+     * A restored catalogue has no parts.
+     */
+    private record Catalogue(List<List<RestaurantDto>> parts, List<RestaurantDto> restaurants) {
+
+        private boolean isMergedFrom(List<List<RestaurantDto>> otherParts) {
+            if (parts.size() != otherParts.size()) {
+                return false;
+            }
+            for (int i = 0; i < parts.size(); i++) {
+                if (parts.get(i) != otherParts.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,11 @@
+package org.eatclub.challenge.domain.restaurant;
+
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+
+import java.util.List;
+
+/**
+ * Published once a new restaurant catalogue has been fetched and swapped in.
+ */
+public record RestaurantsRefreshedEvent(List<RestaurantDto> restaurants) {
+}
@@ -1,8 +1,10 @@
 package org.eatclub.challenge.jackson;
 
 import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
+import org.eatclub.challenge.common.MinuteOfDay;
 
 import java.io.IOException;
 import java.time.LocalTime;
@@ -12,6 +14,10 @@ import java.time.format.DateTimeFormatterBuilder;
 /**
  * Deserializer to handle case-insensitive parsing of LocalTime in the format "h:mma".
  * Handles the deserialization of LocalTime values by Jackson when used from RestTemplate (expects "PM" instead of "pm"").
+ * <p>
+ * Well-formed values (e.g. "3:05pm", " 11:40AM ") are parsed directly from the characters of the parser,
+ * without allocating, and resolve to the shared instances of {@link MinuteOfDay#toLocalTime(int)}.
+ * Any other value falls back to the formatter, which reports the parse error.
  */
 public class CaseInsensitiveLocalTimeDeserializer extends JsonDeserializer<LocalTime> {
 
@@ -22,7 +28,70 @@ public class CaseInsensitiveLocalTimeDeserializer extends JsonDeserializer<Local
 
     @Override
     public LocalTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        if (p.hasToken(JsonToken.VALUE_STRING)) {
+            int minuteOfDay = parseMinuteOfDay(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+            if (minuteOfDay >= 0) {
+                return MinuteOfDay.toLocalTime(minuteOfDay);
+            }
+        }
+
         String text = p.getText().trim();
         return LocalTime.parse(text, FORMATTER);
     }
+
+    /**
+     * Parses the minute of the day of a "h:mma" time surrounded by optional whitespace.
+     *
+     * @return the minute of the day, or -1 in case the characters are not a well-formed "h:mma" time
+     */
+    static int parseMinuteOfDay(char[] chars, int offset, int length) {
+        int from = offset;
+        int to = offset + length;
+
+        // Skip the whitespace trimmed by String.trim()
+        while (from < to && chars[from] <= ' ') {
+            from++;
+        }
+        while (to > from && chars[to - 1] <= ' ') {
+            to--;
+        }
+
+        // h:mma or hh:mma
+        int hourDigits = to - from - 5;
+        if (hourDigits != 1 && hourDigits != 2) {
+            return -1;
+        }
+
+        int hour = digit(chars[from]);
+        if (hourDigits == 2) {
+            hour = hour * 10 + digit(chars[from + 1]);
+        }
+
+        int colon = from + hourDigits;
+        int minute = digit(chars[colon + 1]) * 10 + digit(chars[colon + 2]);
+        if (hour < 1 || hour > 12 || chars[colon] != ':' || minute < 0 || minute > 59) {
+            return -1;
+        }
+
+        char marker = chars[colon + 3];
+        char m = chars[colon + 4];
+        if (m != 'm' && m != 'M') {
+            return -1;
+        }
+
+        if (marker == 'a' || marker == 'A') {
+            return (hour % 12) * 60 + minute;
+        }
+        if (marker == 'p' || marker == 'P') {
+            return (hour % 12 + 12) * 60 + minute;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value of the given ASCII digit, or a negative value large enough to invalidate any sum of digits.
+     */
+    private static int digit(char c) {
+        return c >= '0' && c <= '9' ? c - '0' : -1000;
+    }
 }
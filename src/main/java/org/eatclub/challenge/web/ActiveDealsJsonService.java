@@ -0,0 +1,132 @@
+package org.eatclub.challenge.web;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.eatclub.challenge.common.MinuteOfDay;
+import org.eatclub.challenge.domain.deal.DealFilter;
+import org.eatclub.challenge.domain.deal.DealService;
+import org.eatclub.challenge.domain.deal.DealSnapshotBuiltEvent;
+import org.eatclub.challenge.web.cache.ActiveDealsResponseCache;
+import org.eatclub.challenge.web.response.ActiveDealsJson;
+import org.eatclub.challenge.web.response.ActiveDealsJsonFragments;
+import org.eatclub.challenge.web.response.ActiveDealsPageWriter;
+import org.eatclub.challenge.web.response.ActiveDealsResponse;
+import org.eatclub.challenge.web.response.DealField;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Serialised active deals responses, read from the deal snapshots of the {@link DealService}.
+ * <p>
+ * The {@link ActiveDealsJsonFragments} of the deals of each snapshot are built as soon as the snapshot is built,
+ * and the active deals responses are written from them without serialising the deals. The responses of a snapshot
+ * whose fragments are not built, such as a snapshot built before the listeners are registered at startup,
+ * are serialised once per minute and cached by the {@link ActiveDealsResponseCache} instead.
+ * <p>
+ * Each query is timed by the {@code eatclub.deals.query} timer, tagged with the query, and the size of the
+ * serialised responses is recorded by the {@code eatclub.deals.response.size} summary.
+ */
+@Component
+public class ActiveDealsJsonService {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ActiveDealsJsonService.class);
+
+    private final DealService dealService;
+    private final ActiveDealsResponseCache responseCache;
+
+    private final Timer activeJsonQueryTimer;
+    private final Timer activePageQueryTimer;
+    private final DistributionSummary activeJsonSize;
+    private final DistributionSummary activePageSize;
+
+    private final AtomicReference<ActiveDealsJsonFragments> jsonFragments;
+
+    public ActiveDealsJsonService(DealService dealService, ActiveDealsResponseCache responseCache,
+                                  MeterRegistry meterRegistry) {
+        this.dealService = dealService;
+        this.responseCache = responseCache;
+
+        this.activeJsonQueryTimer = meterRegistry.timer("eatclub.deals.query", "query", "active.json");
+        this.activePageQueryTimer = meterRegistry.timer("eatclub.deals.query", "query", "active.page");
+        this.activeJsonSize = responseSize("active.json", meterRegistry);
+        this.activePageSize = responseSize("active.page", meterRegistry);
+
+        // the snapshot restored at startup is built before this service listens for snapshots
+        this.jsonFragments = new AtomicReference<>(ActiveDealsJsonFragments.of(dealService.getLatestSnapshot(), null));
+    }
+
+    private static DistributionSummary responseSize(String query, MeterRegistry meterRegistry) {
+        return DistributionSummary.builder("eatclub.deals.response.size")
+                .baseUnit("bytes")
+                .tag("query", query)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the serialised list of active deals based on the provided time of day.
+     * The response is made of the JSON fragments of the active deals, encoded once per deal snapshot,
+     * or if the fragments of the snapshot are not built, serialised once per minute and cached.
+     *
+     * @param timeOfDayAsString the given time of day in HH:mm format
+     * @return the JSON of the response containing active deals
+     */
+    public ActiveDealsJson getActiveDealsJson(String timeOfDayAsString) {
+        LOG.info("getActiveDeals: {}", timeOfDayAsString);
+
+        ActiveDealsJson json = activeJsonQueryTimer.record(() -> {
+            var minuteOfDay = MinuteOfDay.parse(timeOfDayAsString);
+            var current = dealService.getSnapshot();
+
+            var fragments = jsonFragments.get();
+            if (fragments.isOf(current)) {
+                return fragments.response(current.getActiveOrdinals(minuteOfDay));
+            }
+
+            return ActiveDealsJson.of(responseCache.get(current, minuteOfDay, () -> new ActiveDealsResponse.Builder()
+                    .withActiveDeals(current.getActiveDeals(minuteOfDay))
+                    .build()));
+        });
+        activeJsonSize.record(json.getContentLength());
+
+        return json;
+    }
+
+    /**
+     * Returns a page of the serialised active deals based on the provided time of day and filter,
+     * holding the requested fields only. Pages are not cached, and the fields that are not requested are never read.
+     *
+     * @param timeOfDayAsString the given time of day in HH:mm format
+     * @param filter            the filter on the attributes of the deals, answered from the snapshot indexes
+     * @param limit             the maximum number of deals of the page, or null for all the remaining deals
+     * @param cursor            the nextCursor of the previous page, or null for the first page
+     * @param fields            the comma separated names of the fields of each deal, or null for all the fields
+     * @return the JSON bytes of the page, with the nextCursor of the following page if deals remain
+     */
+    public byte[] getActiveDealsPageJson(String timeOfDayAsString, DealFilter filter, Integer limit, String cursor,
+                                         String fields) {
+        byte[] page = activePageQueryTimer.record(() -> {
+            var dealFields = DealField.of(fields);
+            var dealPage = dealService.getActiveDealsPage(timeOfDayAsString, filter, limit, cursor);
+
+            return ActiveDealsPageWriter.write(dealPage.deals(), dealFields, dealPage.nextCursor());
+        });
+        activePageSize.record(page.length);
+
+        return page;
+    }
+
+    /**
+     * Builds the JSON fragments of the deals of each new snapshot before it is served,
+     * reusing the fragments of the deals of the previous snapshot.
+     */
+    @EventListener
+    public void onSnapshotBuilt(DealSnapshotBuiltEvent event) {
+        jsonFragments.set(ActiveDealsJsonFragments.of(event.snapshot(), jsonFragments.get()));
+    }
+
+}
@@ -1,38 +1,81 @@
 package org.eatclub.challenge.web;
 
+import org.eatclub.challenge.domain.deal.DealFilter;
 import org.eatclub.challenge.domain.deal.DealService;
-import org.eatclub.challenge.domain.restaurant.RestaurantService;
-import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.eatclub.challenge.web.response.ActiveDealsJson;
 import org.eatclub.challenge.web.response.ActiveDealsResponse;
+import org.eatclub.challenge.web.response.DealHistogramResponse;
+import org.eatclub.challenge.web.response.DealValidationReportResponse;
 import org.eatclub.challenge.web.response.PeakTimeWindowResponse;
+import org.eatclub.challenge.web.response.PeakTimeWindowsResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
+/**
+ * Deal endpoints of the servlet stack. See {@link ReactiveDealController} for the reactive stack.
+ */
 @RestController
 @RequestMapping("/deal")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class DealController {
 
     private final DealService dealService;
-    private final RestaurantService restaurantService;
+    private final ActiveDealsJsonService activeDealsJsonService;
 
-    public DealController(DealService dealService, RestaurantService restaurantService) {
+    public DealController(DealService dealService, ActiveDealsJsonService activeDealsJsonService) {
         this.dealService = dealService;
-        this.restaurantService = restaurantService;
+        this.activeDealsJsonService = activeDealsJsonService;
     }
 
-    @GetMapping("/active")
-    public ActiveDealsResponse getActiveDeals(@RequestParam(name = "timeOfDay") String timeOfDay) {
-        return dealService.getActiveDeals(timeOfDay);
+    @GetMapping(value = "/active", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ActiveDealsJson getActiveDeals(@RequestParam(name = "timeOfDay") String timeOfDay,
+                                          @RequestParam(name = "limit", required = false) Integer limit,
+                                          @RequestParam(name = "cursor", required = false) String cursor,
+                                          @RequestParam(name = "fields", required = false) String fields,
+                                          @RequestParam(name = "suburb", required = false) String suburb,
+                                          @RequestParam(name = "cuisine", required = false) String cuisine,
+                                          @RequestParam(name = "dineIn", required = false) Boolean dineIn,
+                                          @RequestParam(name = "lightning", required = false) Boolean lightning,
+                                          @RequestParam(name = "discount", required = false) Integer minDiscount) {
+        var filter = new DealFilter(suburb, cuisine, dineIn, lightning, minDiscount);
+        if (limit == null && cursor == null && fields == null && filter.isEmpty()) {
+            return activeDealsJsonService.getActiveDealsJson(timeOfDay);
+        }
+
+        return ActiveDealsJson.of(activeDealsJsonService.getActiveDealsPageJson(timeOfDay, filter, limit, cursor, fields));
+    }
+
+    @GetMapping("/active/range")
+    public ActiveDealsResponse getActiveDealsInRange(@RequestParam(name = "from") String from,
+                                                     @RequestParam(name = "to") String to,
+                                                     @RequestParam(name = "mode", defaultValue = "overlap") String mode) {
+        return new ActiveDealsResponse.Builder()
+                .withActiveDeals(dealService.getActiveDealsInRange(from, to, mode))
+                .build();
     }
 
     @GetMapping("/peak")
     public PeakTimeWindowResponse getPeakWindow() {
-        List<RestaurantDto> allRestaurants = restaurantService.getRestaurants();
-        return dealService.calculatePeakWindow(allRestaurants);
+        return PeakTimeWindowResponse.of(dealService.getPeakWindow());
+    }
+
+    @GetMapping(value = "/peak", params = "top")
+    public PeakTimeWindowsResponse getPeakWindows(@RequestParam(name = "top") int top) {
+        return PeakTimeWindowsResponse.of(dealService.getPeakWindows(top));
+    }
+
+    @GetMapping("/peak/histogram")
+    public DealHistogramResponse getHistogram() {
+        return DealHistogramResponse.of(dealService.getHistogram());
+    }
+
+    @GetMapping("/validation")
+    public DealValidationReportResponse getValidationReport() {
+        return DealValidationReportResponse.of(dealService.getValidationReport());
     }
 
 }
\ No newline at end of file
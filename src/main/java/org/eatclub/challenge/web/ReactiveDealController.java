@@ -0,0 +1,157 @@
+package org.eatclub.challenge.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eatclub.challenge.domain.deal.Deal;
+import org.eatclub.challenge.domain.deal.DealFilter;
+import org.eatclub.challenge.domain.deal.DealService;
+import org.eatclub.challenge.web.response.ActiveDealsResponse;
+import org.eatclub.challenge.web.response.DealHistogramResponse;
+import org.eatclub.challenge.web.response.DealValidationReportResponse;
+import org.eatclub.challenge.web.response.PeakTimeWindowResponse;
+import org.eatclub.challenge.web.response.PeakTimeWindowsResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+/**
+ * Deal endpoints of the reactive stack, enabled by the {@code reactive} profile.
+ * <p>
+ * Active deals are streamed one deal at a time, either as the chunked JSON of {@link ActiveDealsResponse}
+ * or as newline delimited JSON, so the response list is never materialised before serialisation.
+ * Both accept the attribute filters of the servlet stack. Pages and projections, which are bounded, are served
+ * as JSON in a single buffer, and are rejected by the newline delimited JSON stream.
+ * The deal snapshot is read off the event loop, since the first read may wait for the restaurant catalogue.
+ */
+@RestController
+@RequestMapping("/deal")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveDealController {
+
+    private static final byte[] DEALS_START = "{\"deals\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DEALS_END = "]}".getBytes(StandardCharsets.UTF_8);
+    private static final int DEAL_BUFFER_SIZE = 512;
+
+    private final DealService dealService;
+    private final ActiveDealsJsonService activeDealsJsonService;
+    private final ObjectMapper objectMapper;
+    private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+    public ReactiveDealController(DealService dealService, ActiveDealsJsonService activeDealsJsonService,
+                                  ObjectMapper objectMapper) {
+        this.dealService = dealService;
+        this.activeDealsJsonService = activeDealsJsonService;
+        this.objectMapper = objectMapper;
+    }
+
+    @GetMapping(value = "/active", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Flux<DataBuffer> getActiveDeals(@RequestParam(name = "timeOfDay") String timeOfDay,
+                                           @RequestParam(name = "limit", required = false) Integer limit,
+                                           @RequestParam(name = "cursor", required = false) String cursor,
+                                           @RequestParam(name = "fields", required = false) String fields,
+                                           @RequestParam(name = "suburb", required = false) String suburb,
+                                           @RequestParam(name = "cuisine", required = false) String cuisine,
+                                           @RequestParam(name = "dineIn", required = false) Boolean dineIn,
+                                           @RequestParam(name = "lightning", required = false) Boolean lightning,
+                                           @RequestParam(name = "discount", required = false) Integer minDiscount) {
+        var filter = new DealFilter(suburb, cuisine, dineIn, lightning, minDiscount);
+        if (limit != null || cursor != null || fields != null) {
+            return fromSnapshot(() -> activeDealsJsonService.getActiveDealsPageJson(timeOfDay, filter, limit, cursor,
+                    fields))
+                    .map(bufferFactory::wrap)
+                    .flux();
+        }
+
+        return fromSnapshot(() -> dealService.getActiveDealsAt(timeOfDay, filter))
+                .flatMapMany(deals -> Flux.concat(
+                        Mono.fromCallable(() -> bufferFactory.wrap(DEALS_START)),
+                        Flux.range(0, deals.size()).map(index -> toJson(deals.get(index), index > 0)),
+                        Mono.fromCallable(() -> bufferFactory.wrap(DEALS_END))));
+    }
+
+    @GetMapping(value = "/active", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ActiveDealsResponse.DealDto> streamActiveDeals(
+            @RequestParam(name = "timeOfDay") String timeOfDay,
+            @RequestParam(name = "limit", required = false) Integer limit,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            @RequestParam(name = "fields", required = false) String fields,
+            @RequestParam(name = "suburb", required = false) String suburb,
+            @RequestParam(name = "cuisine", required = false) String cuisine,
+            @RequestParam(name = "dineIn", required = false) Boolean dineIn,
+            @RequestParam(name = "lightning", required = false) Boolean lightning,
+            @RequestParam(name = "discount", required = false) Integer minDiscount) {
+        if (limit != null || cursor != null || fields != null) {
+            return Flux.error(new IllegalArgumentException(
+                    "The limit, cursor and fields parameters are not supported by the newline delimited JSON stream."));
+        }
+
+        var filter = new DealFilter(suburb, cuisine, dineIn, lightning, minDiscount);
+        return fromSnapshot(() -> dealService.getActiveDealsAt(timeOfDay, filter))
+                .flatMapIterable(deals -> deals)
+                .map(ActiveDealsResponse.DealDto::of);
+    }
+
+    @GetMapping("/active/range")
+    public Mono<ActiveDealsResponse> getActiveDealsInRange(@RequestParam(name = "from") String from,
+                                                           @RequestParam(name = "to") String to,
+                                                           @RequestParam(name = "mode", defaultValue = "overlap") String mode) {
+        return fromSnapshot(() -> new ActiveDealsResponse.Builder()
+                .withActiveDeals(dealService.getActiveDealsInRange(from, to, mode))
+                .build());
+    }
+
+    @GetMapping("/peak")
+    public Mono<PeakTimeWindowResponse> getPeakWindow() {
+        return fromSnapshot(() -> PeakTimeWindowResponse.of(dealService.getPeakWindow()));
+    }
+
+    @GetMapping(value = "/peak", params = "top")
+    public Mono<PeakTimeWindowsResponse> getPeakWindows(@RequestParam(name = "top") int top) {
+        return fromSnapshot(() -> PeakTimeWindowsResponse.of(dealService.getPeakWindows(top)));
+    }
+
+    @GetMapping("/peak/histogram")
+    public Mono<DealHistogramResponse> getHistogram() {
+        return fromSnapshot(() -> DealHistogramResponse.of(dealService.getHistogram()));
+    }
+
+    @GetMapping("/validation")
+    public Mono<DealValidationReportResponse> getValidationReport() {
+        return fromSnapshot(() -> DealValidationReportResponse.of(dealService.getValidationReport()));
+    }
+
+    private <T> Mono<T> fromSnapshot(Callable<T> read) {
+        return Mono.fromCallable(read).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    /**
+     * Serialises the given deal into its own buffer, preceded by the array separator if it is not the first deal.
+     */
+    private DataBuffer toJson(Deal deal, boolean separated) {
+        DataBuffer buffer = bufferFactory.allocateBuffer(DEAL_BUFFER_SIZE);
+        try (OutputStream out = buffer.asOutputStream()) {
+            if (separated) {
+                out.write(',');
+            }
+            objectMapper.writeValue(out, ActiveDealsResponse.DealDto.of(deal));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer;
+    }
+
+}
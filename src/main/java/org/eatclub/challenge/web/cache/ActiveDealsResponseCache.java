@@ -0,0 +1,152 @@
+package org.eatclub.challenge.web.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eatclub.challenge.common.MinuteOfDay;
+import org.eatclub.challenge.domain.deal.DealSnapshot;
+import org.eatclub.challenge.web.response.ActiveDealsResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * Cache of the serialised active deals responses, one per minute of the day.
+ * <p>
+ * Responses are rendered to JSON bytes on first access and served as is afterwards,
+ * skipping the response building and serialisation. All the responses belong to a generation
+ * identified by the deal snapshot they were rendered from, and are dropped as soon as another
+ * snapshot is served.
+ * <p>
+ * The cached bytes are bounded by a memory budget. Going over budget evicts responses
+ * in clock order until the cache fits again.
+ */
+@Component
+public class ActiveDealsResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final long maxBytes;
+
+    private final AtomicReference<Generation> generation = new AtomicReference<>(new Generation(null));
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ActiveDealsResponseCache(ObjectMapper objectMapper,
+                                    @Value("${eatclub.deals.response-cache.max-bytes:33554432}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the serialised response of the given minute of the day, rendering it if not cached.
+     *
+     * @param snapshot    the deal snapshot the response is rendered from
+     * @param minuteOfDay the minute of the day of the response
+     * @param response    the supplier of the response, called on cache misses
+     * @return the JSON bytes of the response
+     */
+    public byte[] get(DealSnapshot snapshot, int minuteOfDay, Supplier<ActiveDealsResponse> response) {
+        Generation current = generationOf(snapshot);
+
+        byte[] cached = current.entries.get(minuteOfDay);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+
+        misses.incrementAndGet();
+        byte[] rendered = serialize(response.get());
+        current.put(minuteOfDay, rendered);
+
+        return rendered;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /**
+     * Returns the number of bytes of the responses currently cached.
+     */
+    public long getCachedBytes() {
+        return generation.get().bytes.get();
+    }
+
+    private Generation generationOf(DealSnapshot snapshot) {
+        Generation current = generation.get();
+        while (current.snapshot != snapshot) {
+            Generation next = new Generation(snapshot);
+            if (generation.compareAndSet(current, next)) {
+                evictions.addAndGet(current.size());
+                return next;
+            }
+            current = generation.get();
+        }
+        return current;
+    }
+
+    private byte[] serialize(ActiveDealsResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The responses rendered from a single deal snapshot.
+     */
+    private class Generation {
+
+        private final DealSnapshot snapshot;
+        private final AtomicReferenceArray<byte[]> entries = new AtomicReferenceArray<>(MinuteOfDay.MINUTES_PER_DAY);
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicInteger clockHand = new AtomicInteger();
+
+        private Generation(DealSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        private void put(int minuteOfDay, byte[] rendered) {
+            if (rendered.length > maxBytes || !entries.compareAndSet(minuteOfDay, null, rendered)) {
+                return;
+            }
+
+            bytes.addAndGet(rendered.length);
+            while (bytes.get() > maxBytes) {
+                int slot = Math.floorMod(clockHand.getAndIncrement(), MinuteOfDay.MINUTES_PER_DAY);
+                byte[] evicted = entries.getAndSet(slot, null);
+                if (evicted != null) {
+                    bytes.addAndGet(-evicted.length);
+                    evictions.incrementAndGet();
+                }
+            }
+        }
+
+        private int size() {
+            int size = 0;
+            for (int slot = 0; slot < entries.length(); slot++) {
+                if (entries.get(slot) != null) {
+                    size++;
+                }
+            }
+            return size;
+        }
+    }
+
+}
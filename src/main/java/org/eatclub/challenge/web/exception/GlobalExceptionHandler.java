@@ -4,6 +4,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.client.RestClientException;
 
 import java.net.URI;
 
@@ -18,4 +19,17 @@ public class GlobalExceptionHandler {
         problem.setType(URI.create("https://httpstatuses.com/400"));
         return problem;
     }
+
+    /**
+     * Handles failures and timeouts of the external API. Matches before the cause of the failure,
+     * e.g. the {@link IllegalArgumentException} of an unresolved host, is mistaken for an invalid argument.
+     */
+    @ExceptionHandler(RestClientException.class)
+    public ProblemDetail handleUpstreamFailure(RestClientException ex) {
+        ProblemDetail problem = ProblemDetail.forStatus(HttpStatus.BAD_GATEWAY);
+        problem.setTitle("Upstream Unavailable");
+        problem.setDetail("The restaurant catalogue could not be fetched.");
+        problem.setType(URI.create("https://httpstatuses.com/502"));
+        return problem;
+    }
 }
\ No newline at end of file
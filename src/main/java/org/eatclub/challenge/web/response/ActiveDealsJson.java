@@ -0,0 +1,82 @@
+package org.eatclub.challenge.web.response;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A serialised active deals response, held as slices of a shared buffer and written slice by slice,
+ * so the response is never copied into an array of its own before reaching the output stream.
+ * <p>
+ * The slices either hold the whole response, or the deals only, which are then enclosed in the deals array.
+ */
+public final class ActiveDealsJson {
+
+    private static final byte[] DEALS_START = "{\"deals\":[".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DEALS_END = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private final byte[] buffer;
+    private final int[] slices;
+    private final int sliceCount;
+    private final boolean enclosed;
+    private final long contentLength;
+
+    ActiveDealsJson(byte[] buffer, int[] slices, int sliceCount, boolean enclosed) {
+        this.buffer = buffer;
+        this.slices = slices;
+        this.sliceCount = sliceCount;
+        this.enclosed = enclosed;
+
+        long length = enclosed ? DEALS_START.length + DEALS_END.length : 0;
+        for (int slice = 0; slice < sliceCount; slice++) {
+            length += slices[2 * slice + 1] - slices[2 * slice];
+        }
+        this.contentLength = length;
+    }
+
+    /**
+     * Static factory method to create the response of the given JSON bytes.
+     */
+    public static ActiveDealsJson of(byte[] json) {
+        return new ActiveDealsJson(json, new int[]{0, json.length}, 1, false);
+    }
+
+    /**
+     * Returns the number of bytes of the response.
+     */
+    public long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Writes the response to the given stream, without closing it.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        if (enclosed) {
+            out.write(DEALS_START);
+        }
+        for (int slice = 0; slice < sliceCount; slice++) {
+            int from = slices[2 * slice];
+            out.write(buffer, from, slices[2 * slice + 1] - from);
+        }
+        if (enclosed) {
+            out.write(DEALS_END);
+        }
+    }
+
+    /**
+     * Returns the JSON bytes of the response.
+     */
+    public byte[] toByteArray() {
+        var bytes = new ByteArrayOutputStream(Math.toIntExact(contentLength));
+        try {
+            writeTo(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+}
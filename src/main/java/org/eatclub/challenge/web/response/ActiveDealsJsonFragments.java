@@ -0,0 +1,132 @@
+package org.eatclub.challenge.web.response;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import org.eatclub.challenge.domain.deal.Deal;
+import org.eatclub.challenge.domain.deal.DealDetails;
+import org.eatclub.challenge.domain.deal.DealSnapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The JSON objects of every deal of a snapshot, as in {@link ActiveDealsResponse}, encoded once into a shared buffer,
+ * from which the active deals response of any minute is written without serialising its deals again.
+ * <p>
+ * Each fragment is a comma followed by a deal object, and the fragments are laid out in ordinal order,
+ * so a run of consecutive active ordinals is a single slice of the buffer. The response of a minute is the slices
+ * of the runs of its ordinals, dropping the comma of the first, enclosed in the deals array.
+ * <p>
+ * The fragments of the deals a snapshot reused from the previous snapshot are copied from the previous fragments
+ * rather than encoded again, so an incremental snapshot encodes its changed deals only.
+ */
+public final class ActiveDealsJsonFragments {
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private final DealSnapshot snapshot;
+    private final byte[] buffer;
+    private final int[] offsets;
+
+    private ActiveDealsJsonFragments(DealSnapshot snapshot, byte[] buffer, int[] offsets) {
+        this.snapshot = snapshot;
+        this.buffer = buffer;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Static factory method encoding the fragments of the deals of the given snapshot.
+     *
+     * @param previous the fragments of the previous snapshot, or null
+     */
+    public static ActiveDealsJsonFragments of(DealSnapshot snapshot, ActiveDealsJsonFragments previous) {
+        List<Deal> deals = snapshot.getDeals();
+
+        Map<Deal, Integer> previousOrdinals = new IdentityHashMap<>();
+        if (previous != null) {
+            List<Deal> previousDeals = previous.snapshot.getDeals();
+            for (int ordinal = 0; ordinal < previousDeals.size(); ordinal++) {
+                previousOrdinals.put(previousDeals.get(ordinal), ordinal);
+            }
+        }
+
+        var bytes = new ByteArrayOutputStream();
+        int[] offsets = new int[deals.size() + 1];
+        for (int ordinal = 0; ordinal < deals.size(); ordinal++) {
+            Deal deal = deals.get(ordinal);
+            Integer previousOrdinal = previousOrdinals.get(deal);
+
+            if (previousOrdinal != null) {
+                int from = previous.offsets[previousOrdinal];
+                bytes.write(previous.buffer, from, previous.offsets[previousOrdinal + 1] - from);
+            } else {
+                bytes.write(',');
+                writeDeal(deal.getDetails(), bytes);
+            }
+            offsets[ordinal + 1] = bytes.size();
+        }
+
+        return new ActiveDealsJsonFragments(snapshot, bytes.toByteArray(), offsets);
+    }
+
+    private static void writeDeal(DealDetails details, ByteArrayOutputStream bytes) {
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(bytes)) {
+            generator.writeStartObject();
+            for (DealField field : DealField.values()) {
+                generator.writeFieldName(field.getJsonName());
+                generator.writeString(field.valueOf(details));
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns true if these are the fragments of the given snapshot.
+     */
+    public boolean isOf(DealSnapshot snapshot) {
+        return this.snapshot == snapshot;
+    }
+
+    /**
+     * Returns the response holding the deals of the given ordinals.
+     *
+     * @param ordinals ascending ordinals of deals of the snapshot
+     */
+    public ActiveDealsJson response(int[] ordinals) {
+        int[] slices = new int[2 * ordinals.length];
+        int sliceCount = 0;
+        for (int i = 0; i < ordinals.length; ) {
+            int first = ordinals[i];
+            int last = first;
+            while (++i < ordinals.length && ordinals[i] == last + 1) {
+                last++;
+            }
+
+            slices[2 * sliceCount] = offsets[first];
+            slices[2 * sliceCount + 1] = offsets[last + 1];
+            sliceCount++;
+        }
+
+        if (sliceCount > 0) {
+            slices[0]++; // the first deal is not preceded by a comma
+        }
+        return new ActiveDealsJson(buffer, slices, sliceCount, true);
+    }
+
+    /**
+     * Returns the number of bytes of the fragments.
+     */
+    public int size() {
+        return buffer.length;
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.eatclub.challenge.web.response;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Writes an {@link ActiveDealsJson} slice by slice to the servlet response, with its content length.
+ * Registered ahead of the Jackson converter, which would otherwise serialise it as a bean.
+ */
+@Component
+public class ActiveDealsJsonHttpMessageConverter extends AbstractHttpMessageConverter<ActiveDealsJson> {
+
+    public ActiveDealsJsonHttpMessageConverter() {
+        super(MediaType.APPLICATION_JSON);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return ActiveDealsJson.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected ActiveDealsJson readInternal(Class<? extends ActiveDealsJson> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Active deals responses cannot be read.", inputMessage);
+    }
+
+    @Override
+    protected Long getContentLength(ActiveDealsJson json, MediaType contentType) {
+        return json.getContentLength();
+    }
+
+    @Override
+    protected void writeInternal(ActiveDealsJson json, HttpOutputMessage outputMessage) throws IOException {
+        json.writeTo(outputMessage.getBody());
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.eatclub.challenge.web.response;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import org.eatclub.challenge.domain.deal.Deal;
+import org.eatclub.challenge.domain.deal.DealDetails;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes a page of the active deals response, holding the requested fields of each deal only.
+ * <p>
+ * The JSON is generated straight from the {@link DealDetails} of each deal, without building a {@link ActiveDealsResponse},
+ * so the fields that are not requested are neither read nor serialised.
+ * The page has the shape of the full response, plus a {@code nextCursor} as long as deals remain.
+ */
+public final class ActiveDealsPageWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private ActiveDealsPageWriter() {
+    }
+
+    /**
+     * Writes the given deals with the given fields.
+     *
+     * @param deals      the deals of the page
+     * @param fields     the fields to write, in {@link DealField} order
+     * @param nextCursor the cursor of the next page, or null if this is the last page
+     * @return the JSON bytes of the page
+     */
+    public static byte[] write(List<Deal> deals, Set<DealField> fields, String nextCursor) {
+        try (ByteArrayBuilder bytes = new ByteArrayBuilder();
+             JsonGenerator generator = JSON_FACTORY.createGenerator(bytes)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("deals");
+            for (Deal deal : deals) {
+                DealDetails details = deal.getDetails();
+
+                generator.writeStartObject();
+                for (DealField field : fields) {
+                    generator.writeFieldName(field.getJsonName());
+                    generator.writeString(field.valueOf(details));
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            if (nextCursor != null) {
+                generator.writeStringField("nextCursor", nextCursor);
+            }
+            generator.writeEndObject();
+
+            generator.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
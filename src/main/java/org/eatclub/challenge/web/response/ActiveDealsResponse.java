@@ -5,7 +5,7 @@ import org.eatclub.challenge.domain.deal.Deal;
 import java.util.List;
 
 public record ActiveDealsResponse(List<DealDto> deals) {
-    record DealDto(
+    public record DealDto(
             String restaurantObjectId,
             String restaurantName,
             String restaurantAddress1,
@@ -17,7 +17,28 @@ public record ActiveDealsResponse(List<DealDto> deals) {
             String dineIn,
             String lightning,
             String qtyLeft
-    ) {}
+    ) {
+
+        /**
+         * Static factory method to create the DealDto of the given deal.
+         */
+        public static DealDto of(Deal deal) {
+            var details = deal.getDetails();
+            return new DealDto(
+                    details.getRestaurantObjectId(),
+                    details.getRestaurantName(),
+                    details.getRestaurantAddress1(),
+                    details.getRestaurantSuburb(),
+                    details.getRestaurantOpen(),
+                    details.getRestaurantClose(),
+                    details.getDealObjectId(),
+                    details.getDiscount(),
+                    details.getDineIn(),
+                    details.getLightning(),
+                    details.getQtyLeft()
+            );
+        }
+    }
 
     public static class Builder {
 
@@ -33,28 +54,11 @@ public record ActiveDealsResponse(List<DealDto> deals) {
 
         public ActiveDealsResponse build() {
             List<DealDto> deals = activeDeals.stream()
-                    .map(this::toDto)
+                    .map(DealDto::of)
                     .toList();
 
             return new ActiveDealsResponse(deals);
         }
-
-        private DealDto toDto(Deal deal) {
-            var details = deal.getDetails();
-            return new DealDto(
-                    details.getRestaurantObjectId(),
-                    details.getRestaurantName(),
-                    details.getRestaurantAddress1(),
-                    details.getRestaurantSuburb(),
-                    details.getRestaurantOpen(),
-                    details.getRestaurantClose(),
-                    details.getDealObjectId(),
-                    details.getDiscount(),
-                    details.getDineIn(),
-                    details.getLightning(),
-                    details.getQtyLeft()
-            );
-        }
     }
 
 }
\ No newline at end of file
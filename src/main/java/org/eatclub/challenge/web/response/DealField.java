@@ -0,0 +1,71 @@
+package org.eatclub.challenge.web.response;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import org.eatclub.challenge.domain.deal.DealDetails;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of a deal in the active deals response, in response order.
+ * Each field reads its value straight from the {@link DealDetails}, and holds its pre-encoded JSON name.
+ */
+public enum DealField {
+
+    RESTAURANT_OBJECT_ID("restaurantObjectId", DealDetails::getRestaurantObjectId),
+    RESTAURANT_NAME("restaurantName", DealDetails::getRestaurantName),
+    RESTAURANT_ADDRESS1("restaurantAddress1", DealDetails::getRestaurantAddress1),
+    RESTAURANT_SUBURB("restaurantSuburb", DealDetails::getRestaurantSuburb),
+    RESTAURANT_OPEN("restaurantOpen", DealDetails::getRestaurantOpen),
+    RESTAURANT_CLOSE("restaurantClose", DealDetails::getRestaurantClose),
+    DEAL_OBJECT_ID("dealObjectId", DealDetails::getDealObjectId),
+    DISCOUNT("discount", DealDetails::getDiscount),
+    DINE_IN("dineIn", DealDetails::getDineIn),
+    LIGHTNING("lightning", DealDetails::getLightning),
+    QTY_LEFT("qtyLeft", DealDetails::getQtyLeft);
+
+    private final SerializableString jsonName;
+    private final Function<DealDetails, String> value;
+
+    DealField(String jsonName, Function<DealDetails, String> value) {
+        this.jsonName = new SerializedString(jsonName);
+        this.value = value;
+    }
+
+    /**
+     * Returns the fields of the given comma separated JSON names, or all the fields if none is given.
+     *
+     * @throws IllegalArgumentException in case a name is not a field
+     */
+    public static Set<DealField> of(String jsonNames) {
+        if (jsonNames == null || jsonNames.isBlank()) {
+            return Collections.unmodifiableSet(EnumSet.allOf(DealField.class));
+        }
+
+        EnumSet<DealField> fields = EnumSet.noneOf(DealField.class);
+        for (String jsonName : jsonNames.split(",")) {
+            fields.add(Arrays.stream(values())
+                    .filter(field -> field.jsonName.getValue().equals(jsonName.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid field " + jsonName.trim() + ". Please use "
+                            + Arrays.stream(values()).map(field -> field.jsonName.getValue()).collect(Collectors.joining(", "))
+                            + ".")));
+        }
+
+        return Collections.unmodifiableSet(fields);
+    }
+
+    public SerializableString getJsonName() {
+        return jsonName;
+    }
+
+    public String valueOf(DealDetails details) {
+        return value.apply(details);
+    }
+
+}
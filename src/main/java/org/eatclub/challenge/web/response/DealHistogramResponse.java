@@ -0,0 +1,27 @@
+package org.eatclub.challenge.web.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import org.eatclub.challenge.domain.deal.DealTimeline;
+
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * The number of active deals over the day, run-length encoded into consecutive windows with the same count.
+ */
+public record DealHistogramResponse(List<Run> runs) {
+    public record Run(
+            @JsonFormat(pattern = "HH:mm") LocalTime start,
+            @JsonFormat(pattern = "HH:mm") LocalTime end,
+            int activeDeals
+    ) {}
+
+    /**
+     * Static factory method to create the response of the given windows of the day.
+     */
+    public static DealHistogramResponse of(List<DealTimeline.Window> windows) {
+        return new DealHistogramResponse(windows.stream()
+                .map(window -> new Run(window.start(), window.end(), window.count()))
+                .toList());
+    }
+}
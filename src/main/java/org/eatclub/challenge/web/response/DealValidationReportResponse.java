@@ -0,0 +1,28 @@
+package org.eatclub.challenge.web.response;
+
+import org.eatclub.challenge.domain.deal.DealValidationReport;
+
+import java.util.List;
+
+/**
+ * The deduplicated validation issues of the deals of the current restaurant catalogue.
+ */
+public record DealValidationReportResponse(List<Issue> issues) {
+    public record Issue(
+            String restaurantId,
+            String dealId,
+            String error,
+            String fallbackValue,
+            int occurrences
+    ) {}
+
+    /**
+     * Static factory method to create the response of the given report.
+     */
+    public static DealValidationReportResponse of(DealValidationReport report) {
+        return new DealValidationReportResponse(report.getIssues().stream()
+                .map(issue -> new Issue(issue.restaurantId(), issue.dealId(), issue.type().name(),
+                        issue.fallbackValue(), report.getOccurrences(issue)))
+                .toList());
+    }
+}
@@ -1,10 +1,18 @@
 package org.eatclub.challenge.web.response;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import org.eatclub.challenge.domain.deal.DealTimeline;
 
 import java.time.LocalTime;
 
 public record PeakTimeWindowResponse(
         @JsonFormat(pattern = "HH:mm") LocalTime peakTimeStart,
         @JsonFormat(pattern = "HH:mm") LocalTime peakTimeEnd
-) {}
\ No newline at end of file
+) {
+    /**
+     * Static factory method to create the response of the given peak window, or of no window if null.
+     */
+    public static PeakTimeWindowResponse of(DealTimeline.Window peak) {
+        return peak == null ? new PeakTimeWindowResponse(null, null) : new PeakTimeWindowResponse(peak.start(), peak.end());
+    }
+}
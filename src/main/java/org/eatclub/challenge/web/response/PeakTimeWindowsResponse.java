@@ -0,0 +1,24 @@
+package org.eatclub.challenge.web.response;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import org.eatclub.challenge.domain.deal.DealTimeline;
+
+import java.time.LocalTime;
+import java.util.List;
+
+public record PeakTimeWindowsResponse(List<PeakTimeWindow> windows) {
+    public record PeakTimeWindow(
+            @JsonFormat(pattern = "HH:mm") LocalTime peakTimeStart,
+            @JsonFormat(pattern = "HH:mm") LocalTime peakTimeEnd,
+            int activeDeals
+    ) {}
+
+    /**
+     * Static factory method to create the response of the given peak windows.
+     */
+    public static PeakTimeWindowsResponse of(List<DealTimeline.Window> windows) {
+        return new PeakTimeWindowsResponse(windows.stream()
+                .map(window -> new PeakTimeWindow(window.start(), window.end(), window.count()))
+                .toList());
+    }
+}
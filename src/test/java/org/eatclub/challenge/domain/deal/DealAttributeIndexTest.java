@@ -0,0 +1,75 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DealAttributeIndexTest {
+
+    private static final String[] SUBURBS = {"Richmond", "richmond ", "Carlton", null};
+    private static final String[] DISCOUNTS = {"10", "20", " 25", "30", "50", "-5", "n/a", null};
+    private static final String[] FLAGS = {"true", "FALSE", "false", null};
+
+    @Test
+    void shouldFind_TheDealsMatchedOneByOne() {
+        // given restaurants of few deals, and sparse and dense attributes
+        var random = new Random(11);
+        List<RestaurantDto> restaurants = new ArrayList<>();
+        for (int index = 0; index < 300; index++) {
+            List<DealDto> deals = new ArrayList<>();
+            for (int deal = random.nextInt(4); deal > 0; deal--) {
+                deals.add(new DealDto("d" + index + "-" + deal, pick(random, DISCOUNTS), pick(random, FLAGS),
+                        pick(random, FLAGS), "5", null, null, LocalTime.of(10, 0), LocalTime.of(12, 0)));
+            }
+            restaurants.add(new RestaurantDto("r" + index, "Restaurant", null, pick(random, SUBURBS),
+                    random.nextInt(20) == 0 ? List.of("Thai", "THAI") : List.of("Indian"),
+                    null, LocalTime.of(8, 0), LocalTime.of(22, 0), deals));
+        }
+        List<Deal> deals = Deals.fromRestaurants(restaurants);
+        var index = DealAttributeIndex.of(restaurants, Deals.dealOffsets(restaurants), deals);
+
+        List<DealFilter> filters = List.of(
+                new DealFilter(null, null, null, null, 25),
+                new DealFilter(null, null, null, null, -100),
+                new DealFilter(null, null, null, null, 51),
+                new DealFilter("RICHMOND", null, null, null, 30),
+                new DealFilter(null, "thai", null, null, 10),
+                new DealFilter(null, "thai", true, null, null),
+                new DealFilter("carlton", "indian", false, true, 20),
+                new DealFilter(null, null, true, false, 0));
+
+        for (DealFilter filter : filters) {
+            // when
+            int[] found = index.find(filter).toArray();
+
+            // then
+            int[] expected = IntStream.range(0, deals.size())
+                    .filter(ordinal -> matches(filter, restaurants, deals.get(ordinal)))
+                    .toArray();
+            assertThat(found).as("%s", filter).containsExactly(expected);
+        }
+    }
+
+    private static boolean matches(DealFilter filter, List<RestaurantDto> restaurants, Deal deal) {
+        DealDetails details = deal.getDetails();
+        RestaurantDto restaurant = restaurants.stream()
+                .filter(candidate -> candidate.objectId().equals(details.getRestaurantObjectId()))
+                .findFirst()
+                .orElseThrow();
+        return DealAttributeIndex.matches(filter, restaurant, details.getDineIn(), details.getLightning(),
+                details.getDiscount());
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+}
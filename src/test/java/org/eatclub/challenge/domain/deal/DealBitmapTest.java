@@ -0,0 +1,70 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DealBitmapTest {
+
+    private static final int UNIVERSE = 10_000;
+
+    @Test
+    void shouldIntersect_SparseAndDenseSets() {
+        // given sets of various densities, held as arrays or as bitmaps
+        var random = new Random(7);
+        int[] densities = {1, 20, 100, 2000, 9000};
+
+        for (int left : densities) {
+            for (int right : densities) {
+                boolean[] inLeft = randomSet(random, left);
+                boolean[] inRight = randomSet(random, right);
+
+                // when
+                var and = bitmap(inLeft).and(bitmap(inRight));
+
+                // then
+                int[] expected = IntStream.range(0, UNIVERSE).filter(ordinal -> inLeft[ordinal] && inRight[ordinal]).toArray();
+                assertThat(and.toArray()).as("%d and %d", left, right).containsExactly(expected);
+                assertThat(and.cardinality()).isEqualTo(expected.length);
+                IntStream.of(expected).forEach(ordinal -> assertThat(and.contains(ordinal)).isTrue());
+            }
+        }
+    }
+
+    @Test
+    void shouldIgnore_RepeatedOrdinals() {
+        var bitmap = new DealBitmap.Builder(100).addRange(3, 6).add(5).add(8).build();
+
+        assertThat(bitmap.toArray()).containsExactly(3, 4, 5, 8);
+    }
+
+    @Test
+    void shouldReject_OrdinalsOutOfOrder() {
+        var builder = new DealBitmap.Builder(100).addRange(3, 6);
+
+        assertThatThrownBy(() -> builder.addRange(3, 6)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static boolean[] randomSet(Random random, int size) {
+        boolean[] set = new boolean[UNIVERSE];
+        for (int i = 0; i < size; i++) {
+            set[random.nextInt(UNIVERSE)] = true;
+        }
+        return set;
+    }
+
+    private static DealBitmap bitmap(boolean[] set) {
+        var builder = new DealBitmap.Builder(UNIVERSE);
+        for (int ordinal = 0; ordinal < UNIVERSE; ordinal++) {
+            if (set[ordinal]) {
+                builder.add(ordinal);
+            }
+        }
+        return builder.build();
+    }
+
+}
@@ -0,0 +1,44 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.common.MinuteOfDay;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DealIntervalIndexTest {
+
+    @Test
+    void shouldMatch_LinearFilter_ForRandomRanges() {
+        // given random deal windows
+        var random = new Random(42);
+        int[] firstMinutes = new int[500];
+        int[] lastMinutes = new int[500];
+        for (int ordinal = 0; ordinal < firstMinutes.length; ordinal++) {
+            firstMinutes[ordinal] = random.nextInt(MinuteOfDay.MINUTES_PER_DAY);
+            lastMinutes[ordinal] = firstMinutes[ordinal] + random.nextInt(MinuteOfDay.MINUTES_PER_DAY - firstMinutes[ordinal]);
+        }
+        var index = DealIntervalIndex.of(firstMinutes, lastMinutes);
+
+        // then the index agrees with filtering every deal, in ordinal order
+        for (int query = 0; query < 1000; query++) {
+            int maxFirstMinute = random.nextInt(MinuteOfDay.MINUTES_PER_DAY);
+            int minLastMinute = random.nextInt(MinuteOfDay.MINUTES_PER_DAY);
+            int[] expected = IntStream.range(0, firstMinutes.length)
+                    .filter(ordinal -> firstMinutes[ordinal] <= maxFirstMinute && lastMinutes[ordinal] >= minLastMinute)
+                    .toArray();
+
+            assertThat(index.find(maxFirstMinute, minLastMinute))
+                    .as("start <= %d, end >= %d", maxFirstMinute, minLastMinute)
+                    .containsExactly(expected);
+        }
+    }
+
+    @Test
+    void shouldFindNothing_OnEmptyIndex() {
+        assertThat(DealIntervalIndex.of(new int[0], new int[0]).find(1439, 0)).isEmpty();
+    }
+
+}
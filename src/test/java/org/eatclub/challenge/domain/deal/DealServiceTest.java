@@ -1,9 +1,14 @@
 package org.eatclub.challenge.domain.deal;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eatclub.challenge.config.CatalogueProperties;
+import org.eatclub.challenge.domain.restaurant.RestaurantService;
+import org.eatclub.challenge.domain.restaurant.RestaurantsRefreshedEvent;
 import org.eatclub.challenge.domain.restaurant.dto.DealDto;
 import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
-import org.eatclub.challenge.web.response.PeakTimeWindowResponse;
 import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
 
 import java.time.LocalTime;
 import java.util.Collections;
@@ -21,11 +26,10 @@ class DealServiceTest {
         List<RestaurantDto> restaurants = List.of(restaurant("08:00", "22:00", Collections.emptyList()));
 
         // when
-        PeakTimeWindowResponse peak = dealService.calculatePeakWindow(restaurants);
+        DealTimeline.Window peak = dealService.calculatePeakWindow(restaurants);
 
         // then the window is null
-        assertThat(peak.peakTimeStart()).isNull();
-        assertThat(peak.peakTimeEnd()).isNull();
+        assertThat(peak).isNull();
     }
 
     @Test
@@ -39,11 +43,11 @@ class DealServiceTest {
                 ))
         );
 
-        PeakTimeWindowResponse peak = dealService.calculatePeakWindow(restaurants);
+        DealTimeline.Window peak = dealService.calculatePeakWindow(restaurants);
 
         // then the peak window is calculated correctly
-        assertThat(peak.peakTimeStart()).isEqualTo(LocalTime.of(9, 0));
-        assertThat(peak.peakTimeEnd()).isEqualTo(LocalTime.of(10, 0));
+        assertThat(peak.start()).isEqualTo(LocalTime.of(9, 0));
+        assertThat(peak.end()).isEqualTo(LocalTime.of(10, 0));
     }
 
     @Test
@@ -61,11 +65,11 @@ class DealServiceTest {
         );
 
         // when
-        PeakTimeWindowResponse peak = dealService.calculatePeakWindow(restaurants);
+        DealTimeline.Window peak = dealService.calculatePeakWindow(restaurants);
 
         // then
-        assertThat(peak.peakTimeStart()).isEqualTo(LocalTime.of(10, 45));
-        assertThat(peak.peakTimeEnd()).isEqualTo(LocalTime.of(11, 0));
+        assertThat(peak.start()).isEqualTo(LocalTime.of(10, 45));
+        assertThat(peak.end()).isEqualTo(LocalTime.of(11, 0));
     }
 
     @Test
@@ -81,11 +85,89 @@ class DealServiceTest {
         );
 
         // when
-        PeakTimeWindowResponse peak = dealService.calculatePeakWindow(restaurants);
+        DealTimeline.Window peak = dealService.calculatePeakWindow(restaurants);
 
         // then the first peak found is returned
-        assertThat(peak.peakTimeStart()).isEqualTo(LocalTime.of(10, 1));
-        assertThat(peak.peakTimeEnd()).isEqualTo(LocalTime.of(10, 5));
+        assertThat(peak.start()).isEqualTo(LocalTime.of(10, 1));
+        assertThat(peak.end()).isEqualTo(LocalTime.of(10, 5));
+    }
+
+    @Test
+    void shouldReturn_PeakWindow_EndingAtLastMinuteOfDay() {
+        // given deals running until the last minute of the day
+        List<RestaurantDto> restaurants = List.of(
+                restaurant("00:00", "23:59", List.of(
+                        deal("22:00", "23:59"),
+                        deal("23:00", "23:59")
+                ))
+        );
+
+        // when
+        DealTimeline.Window peak = dealService.calculatePeakWindow(restaurants);
+
+        // then
+        assertThat(peak.start()).isEqualTo(LocalTime.of(23, 0));
+        assertThat(peak.end()).isEqualTo(LocalTime.of(23, 59));
+    }
+
+    @Test
+    void shouldNotExtend_PeakWindow_AcrossLowerCount() {
+        // given two windows with the same count separated by a lower count
+        List<RestaurantDto> restaurants = List.of(
+                restaurant("08:00", "22:00", List.of(
+                        deal("10:00", "12:00"),
+                        deal("10:00", "10:30"),
+                        deal("10:45", "11:00")
+                ))
+        );
+
+        // when
+        DealTimeline.Window peak = dealService.calculatePeakWindow(restaurants);
+
+        // then only the first contiguous window is returned
+        assertThat(peak.start()).isEqualTo(LocalTime.of(10, 0));
+        assertThat(peak.end()).isEqualTo(LocalTime.of(10, 30));
+    }
+
+    @Test
+    void shouldServe_LastBuiltSnapshot_AndNotRebuild_When_TheRefreshedCatalogueFailsToBuild() {
+        // given
+        var meterRegistry = new SimpleMeterRegistry();
+        var restaurantService = new SwitchableRestaurantService(
+                List.of(restaurant("08:00", "22:00", List.of(deal("10:00", "12:00")))));
+        var service = new DealService(restaurantService, meterRegistry, event -> {
+        });
+        assertThat(service.getActiveDealsAt("11:00")).hasSize(1);
+
+        // when a restaurant closes before it opens
+        var broken = List.of(restaurant("22:00", "08:00", List.of(deal(null, null))));
+        restaurantService.restaurants = broken;
+        service.onRestaurantsRefreshed(new RestaurantsRefreshedEvent(broken));
+
+        // then
+        for (int request = 0; request < 3; request++) {
+            assertThat(service.getActiveDealsAt("11:00")).hasSize(1);
+        }
+        assertThat(meterRegistry.timer("eatclub.deals.snapshot.build").count()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCount_TheIssuesOfTheSnapshotsOnly_When_LoggedByTheServiceLogger() {
+        // given a deal without start and end times
+        var dealLogger = new DealLogger();
+        var restaurants = List.of(restaurant("08:00", "22:00", List.of(deal(null, null))));
+        var service = new DealService(new SwitchableRestaurantService(restaurants), new SimpleMeterRegistry(),
+                event -> {
+                }, DealSnapshotStore.disabled(), dealLogger);
+
+        // when the snapshot is built, and deals are built outside of a snapshot
+        assertThat(service.getActiveDealsAt("11:00")).hasSize(1);
+        Deal.of(deal(null, null), restaurants.getFirst());
+        service.shutdown();
+
+        // then
+        assertThat(dealLogger.getInvalidStartTimes()).isEqualTo(1);
+        assertThat(dealLogger.getInvalidEndTimes()).isEqualTo(1);
     }
 
     private static RestaurantDto restaurant(String open, String close, List<DealDto> deals) {
@@ -116,9 +198,29 @@ class DealServiceTest {
         );
     }
 
+    /**
+     * Restaurant service serving the catalogue set by the test, without calling the external API.
+     */
+    private static class SwitchableRestaurantService extends RestaurantService {
+
+        private volatile List<RestaurantDto> restaurants;
+
+        private SwitchableRestaurantService(List<RestaurantDto> restaurants) {
+            super(new RestTemplate(), new ObjectMapper(), event -> {
+            }, new CatalogueProperties(1, List.of()), new SimpleMeterRegistry());
+            this.restaurants = restaurants;
+        }
+
+        @Override
+        public List<RestaurantDto> getRestaurants() {
+            return restaurants;
+        }
+    }
+
     static class TestDealService extends DealService {
         public TestDealService() {
-            super(null);
+            super(null, new SimpleMeterRegistry(), event -> {
+            });
         }
     }
 
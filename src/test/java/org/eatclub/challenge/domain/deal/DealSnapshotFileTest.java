@@ -0,0 +1,98 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DealSnapshotFileTest {
+
+    private static final Instant SAVED_AT = Instant.parse("2025-07-01T10:15:30Z");
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void shouldRestore_TheSavedRestaurants() throws IOException {
+        // given
+        var restaurants = List.of(
+                new RestaurantDto("r1", "Kekou", "1 Main St", "Melbourne", Arrays.asList("Thai", null), null,
+                        LocalTime.of(8, 0), LocalTime.of(22, 30), List.of(
+                        new DealDto("d1", "50", "true", "false", "5", null, null, LocalTime.of(10, 0), null),
+                        new DealDto("d2", "50", "false", "true", null, LocalTime.of(9, 0), LocalTime.of(21, 0), null, null)
+                )),
+                new RestaurantDto("r2", "Kekou", null, "Melbourne", null, "https://img", null, null, null)
+        );
+        Path file = directory.resolve("snapshot.bin");
+
+        // when
+        DealSnapshotFile.write(file, restaurants, SAVED_AT);
+        var contents = DealSnapshotFile.read(file);
+
+        // then
+        assertThat(contents.savedAt()).isEqualTo(SAVED_AT);
+        assertThat(contents.restaurants()).isEqualTo(restaurants);
+        assertThat(directory.toFile().list()).containsExactly("snapshot.bin");
+    }
+
+    @Test
+    void shouldSave_TheQueuedSnapshot_When_TheStoreIsClosed() throws IOException {
+        // given
+        Path file = directory.resolve("snapshot.bin");
+        var store = new DealSnapshotStore(file, Clock.fixed(SAVED_AT, ZoneOffset.UTC));
+        var restaurants = List.of(new RestaurantDto("r1", "Kekou", null, null, null, null,
+                LocalTime.of(8, 0), LocalTime.of(22, 0), List.of()));
+
+        // when
+        store.save(DealSnapshot.of(restaurants));
+        store.close();
+
+        // then
+        assertThat(DealSnapshotFile.read(file).restaurants()).isEqualTo(restaurants);
+    }
+
+    @Test
+    void shouldReject_CorruptTruncatedOrOtherVersionFiles() throws IOException {
+        // given
+        Path file = directory.resolve("snapshot.bin");
+        DealSnapshotFile.write(file, List.of(new RestaurantDto("r1", "Kekou", null, null, null, null,
+                LocalTime.of(8, 0), LocalTime.of(22, 0), List.of())), SAVED_AT);
+        byte[] valid = Files.readAllBytes(file);
+
+        // when a payload byte is flipped
+        byte[] corrupt = valid.clone();
+        corrupt[corrupt.length - 1] ^= 1;
+        Files.write(file, corrupt);
+
+        // then
+        assertThatThrownBy(() -> DealSnapshotFile.read(file)).isInstanceOf(IOException.class).hasMessageContaining("checksum");
+
+        // when truncated
+        Files.write(file, Arrays.copyOf(valid, valid.length - 1));
+
+        // then
+        assertThatThrownBy(() -> DealSnapshotFile.read(file)).isInstanceOf(IOException.class).hasMessageContaining("Truncated");
+
+        // when written by another format version
+        byte[] otherVersion = valid.clone();
+        otherVersion[7] = (byte) (DealSnapshotFile.FORMAT_VERSION + 1);
+        Files.write(file, otherVersion);
+
+        // then
+        assertThatThrownBy(() -> DealSnapshotFile.read(file)).isInstanceOf(IOException.class).hasMessageContaining("version");
+    }
+
+}
@@ -0,0 +1,310 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.common.MinuteOfDay;
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class DealSnapshotTest {
+
+    @Test
+    void shouldReturn_NoDeals_OnEmptySnapshot() {
+        assertThat(DealSnapshot.empty().getActiveDeals(LocalTime.of(12, 0))).isEmpty();
+    }
+
+    @Test
+    void shouldReturn_DealsActiveAtWindowBoundaries() {
+        // given
+        var snapshot = DealSnapshot.of(List.of(
+                restaurant("08:00", "22:00", List.of(
+                        deal("d1", "10:00", "11:00"),
+                        deal("d2", "11:00", "12:00")
+                ))
+        ));
+
+        // then start and end minutes are inclusive
+        assertThat(dealIds(snapshot, "09:59")).isEmpty();
+        assertThat(dealIds(snapshot, "10:00")).containsExactly("d1");
+        assertThat(dealIds(snapshot, "11:00")).containsExactly("d1", "d2");
+        assertThat(dealIds(snapshot, "12:00")).containsExactly("d2");
+        assertThat(dealIds(snapshot, "12:01")).isEmpty();
+    }
+
+    @Test
+    void shouldMatch_LinearFilter_ForEveryMinuteOfTheDay() {
+        // given
+        var restaurants = List.of(
+                restaurant("00:00", "23:59", List.of(
+                        deal("d1", "00:00", "23:59"),
+                        deal("d2", null, "01:30"),
+                        deal("d3", "17:00", null)
+                )),
+                restaurant("16:00", "21:00", List.of(
+                        deal("d4", "15:00", "22:00"),
+                        deal("d5", "18:00", "18:00")
+                ))
+        );
+
+        var snapshot = DealSnapshot.of(restaurants);
+        var deals = Deals.fromRestaurants(restaurants);
+
+        // then the index agrees with filtering every deal, in catalogue order
+        for (var time = LocalTime.MIDNIGHT; ; time = time.plusMinutes(1)) {
+            var timeOfDay = time;
+            var expected = deals.stream()
+                    .filter(deal -> deal.isActive(timeOfDay))
+                    .map(deal -> deal.getDetails().getDealObjectId())
+                    .toList();
+
+            assertThat(dealIds(snapshot, timeOfDay.toString())).isEqualTo(expected);
+
+            if (time.equals(LocalTime.of(23, 59))) {
+                break;
+            }
+        }
+    }
+
+    @Test
+    void shouldBeBuiltFrom_SourceListInstance() {
+        var restaurants = List.of(restaurant("08:00", "22:00", Collections.emptyList()));
+
+        var snapshot = DealSnapshot.of(restaurants);
+
+        assertThat(snapshot.isBuiltFrom(restaurants)).isTrue();
+        assertThat(snapshot.isBuiltFrom(new ArrayList<>(restaurants))).isFalse();
+    }
+
+    @Test
+    void shouldMatch_FullBuild_When_BuiltFromPreviousSnapshot() {
+        // given
+        var previous = DealSnapshot.of(List.of(
+                restaurant("r1", deal("d1", "10:00", "12:00")),
+                restaurant("r2", deal("d2", "11:00", "13:00")),
+                restaurant("r3", deal("d3", "18:00", "19:00")),
+                restaurant("r4", deal("d4", "09:00", "10:30"))
+        ));
+
+        // when r2 changes, r3 is removed and r5 is added
+        var restaurants = List.of(
+                restaurant("r1", deal("d1", "10:00", "12:00")),
+                restaurant("r2", deal("d2", "11:30", "14:00")),
+                restaurant("r5", deal("d5", "10:15", "10:45")),
+                restaurant("r4", deal("d4", "09:00", "10:30"))
+        );
+        var incremental = DealSnapshot.of(restaurants, previous);
+        var full = DealSnapshot.of(restaurants);
+
+        // then
+        for (int minute = 0; minute < MinuteOfDay.MINUTES_PER_DAY; minute++) {
+            assertThat(dealIds(incremental, minute)).as("minute %d", minute).isEqualTo(dealIds(full, minute));
+        }
+        assertThat(incremental.getTimeline().getWindows()).isEqualTo(full.getTimeline().getWindows());
+        assertThat(incremental.isBuiltFrom(restaurants)).isTrue();
+    }
+
+    @Test
+    void shouldReuse_DealsOfUnchangedRestaurants() {
+        // given
+        var previous = DealSnapshot.of(List.of(
+                restaurant("r1", deal("d1", "10:00", "12:00")),
+                restaurant("r2", deal("d2", "11:00", "13:00")),
+                restaurant("r3", deal("d3", "18:00", "19:00"))
+        ));
+
+        // when only r2 changes
+        var snapshot = DealSnapshot.of(List.of(
+                restaurant("r1", deal("d1", "10:00", "12:00")),
+                restaurant("r2", deal("d2", "11:00", "14:00")),
+                restaurant("r3", deal("d3", "18:00", "19:00"))
+        ), previous);
+
+        // then
+        assertThat(snapshot.getDeals().get(0)).isSameAs(previous.getDeals().get(0));
+        assertThat(snapshot.getDeals().get(1)).isNotSameAs(previous.getDeals().get(1));
+        assertThat(snapshot.getDeals().get(2)).isSameAs(previous.getDeals().get(2));
+        assertThat(dealIds(snapshot, "13:30")).containsExactly("d2");
+        assertThat(dealIds(snapshot, "18:30")).containsExactly("d3");
+    }
+
+    @Test
+    void shouldKeep_CatalogueOrder_When_RestaurantsAreReordered() {
+        // given
+        var previous = DealSnapshot.of(List.of(
+                restaurant("r1", deal("d1", "10:00", "12:00")),
+                restaurant("r2", deal("d2", "11:00", "13:00"))
+        ));
+
+        // when
+        var snapshot = DealSnapshot.of(List.of(
+                restaurant("r2", deal("d2", "11:00", "13:00")),
+                restaurant("r1", deal("d1", "10:00", "12:00"))
+        ), previous);
+
+        // then
+        assertThat(dealIds(snapshot, "11:30")).containsExactly("d2", "d1");
+    }
+
+    @Test
+    void shouldReturn_DealsActiveDuringRange_ByMode() {
+        // given
+        var snapshot = DealSnapshot.of(List.of(
+                restaurant("r1", deal("d1", "17:00", "20:00"), deal("d2", "18:00", "18:30")),
+                restaurant("r2", deal("d3", "19:00", "21:00"), deal("d4", "12:00", "17:29"))
+        ));
+
+        // then range ends are inclusive, and deals keep the catalogue order
+        assertThat(dealIds(snapshot, "17:30", "19:00", DealRangeMode.OVERLAP)).containsExactly("d1", "d2", "d3");
+        assertThat(dealIds(snapshot, "17:30", "19:00", DealRangeMode.CONTAINS)).containsExactly("d1");
+        assertThat(dealIds(snapshot, "17:29", "17:29", DealRangeMode.CONTAINS)).containsExactly("d1", "d4");
+        assertThat(dealIds(snapshot, "21:01", "23:59", DealRangeMode.OVERLAP)).isEmpty();
+    }
+
+    @Test
+    void shouldFilter_EachDealOnce_When_ACuisineIsListedTwice() {
+        // given
+        var snapshot = DealSnapshot.of(List.of(
+                new RestaurantDto("r1", "Test Restaurant", "Test Address", "Test Suburb", List.of("Thai", "thai", "Thai"),
+                        null, LocalTime.of(8, 0), LocalTime.of(22, 0),
+                        List.of(deal("d1", "10:00", "12:00"), deal("d2", "11:00", "13:00"))),
+                new RestaurantDto("r2", "Test Restaurant", "Test Address", "Test Suburb", List.of("Indian", "Thai"),
+                        null, LocalTime.of(8, 0), LocalTime.of(22, 0),
+                        List.of(deal("d3", "11:00", "12:00"), deal("d4", "11:30", "14:00")))
+        ));
+        var filter = new DealFilter(null, "THAI", null, null, null);
+
+        // when
+        List<String> dealIds = snapshot.getActiveDeals(MinuteOfDay.of(LocalTime.of(11, 45)), filter).stream()
+                .map(deal -> deal.getDetails().getDealObjectId())
+                .toList();
+
+        // then
+        assertThat(dealIds).containsExactly("d1", "d2", "d3", "d4");
+    }
+
+    @Test
+    void shouldReport_ValidationIssues_OncePerDeal_AndKeepThoseOfUnchangedRestaurants() {
+        // given d1 is listed twice without times, and d2 has no start time
+        var previous = DealSnapshot.of(List.of(
+                restaurant("r1", deal("d1", null, null), deal("d1", null, null)),
+                restaurant("r2", deal("d2", null, "12:00"))
+        ));
+
+        // when r2 is fixed
+        var snapshot = DealSnapshot.of(List.of(
+                restaurant("r1", deal("d1", null, null), deal("d1", null, null)),
+                restaurant("r2", deal("d2", "10:00", "12:00"))
+        ), previous);
+
+        // then
+        var startIssue = new DealValidationIssue("r1", "d1", DealValidationIssue.Type.INVALID_START_TIME, "08:00");
+        var endIssue = new DealValidationIssue("r1", "d1", DealValidationIssue.Type.INVALID_END_TIME, "22:00");
+        var fixedIssue = new DealValidationIssue("r2", "d2", DealValidationIssue.Type.INVALID_START_TIME, "08:00");
+
+        assertThat(previous.getValidationReport().getIssues()).containsExactly(startIssue, endIssue, fixedIssue);
+        assertThat(previous.getValidationReport().getOccurrences(startIssue)).isEqualTo(2);
+        assertThat(snapshot.getValidationReport().getIssues()).containsExactly(startIssue, endIssue);
+        assertThat(snapshot.getValidationReport().getOccurrences(endIssue)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldBuild_TheSameSnapshot_InParallel() {
+        // given partitions of a single restaurant or deal, and restaurants with and without valid deal times
+        var pool = new DealBuildPool(new ForkJoinPool(4), 1);
+        List<RestaurantDto> restaurants = new ArrayList<>();
+        for (int index = 0; index < 200; index++) {
+            int hour = 8 + index % 13;
+            restaurants.add(restaurant("r" + index,
+                    deal("d" + index + "a", String.format("%02d:%02d", hour, index % 60), null),
+                    deal("d" + index + "b", null, String.format("%02d:00", hour + 1))));
+        }
+        List<RestaurantDto> refreshed = new ArrayList<>(restaurants);
+        for (int index = 0; index < refreshed.size(); index += 7) {
+            refreshed.set(index, restaurant("r" + index, deal("d" + index + "c", "09:00", "21:00")));
+        }
+
+        // when
+        var sequential = DealSnapshot.of(restaurants, DealBuildPool.SEQUENTIAL);
+        var parallel = DealSnapshot.of(restaurants, pool);
+        var sequentialRefresh = DealSnapshot.of(refreshed, sequential, DealBuildPool.SEQUENTIAL);
+        var parallelRefresh = DealSnapshot.of(refreshed, parallel, pool);
+
+        // then
+        assertSameSnapshot(parallel, sequential);
+        assertSameSnapshot(parallelRefresh, sequentialRefresh);
+    }
+
+    private static void assertSameSnapshot(DealSnapshot actual, DealSnapshot expected) {
+        assertThat(actual.getDeals()).extracting(deal -> deal.getDetails().getDealObjectId(), Deal::getStartMinute,
+                        Deal::getEndMinute, deal -> deal.getDetails().getRestaurantOpen())
+                .isEqualTo(expected.getDeals().stream().map(deal -> tuple(deal.getDetails().getDealObjectId(),
+                        deal.getStartMinute(), deal.getEndMinute(), deal.getDetails().getRestaurantOpen())).toList());
+        for (int minute = 0; minute < MinuteOfDay.MINUTES_PER_DAY; minute++) {
+            assertThat(dealIds(actual, minute)).as("minute %d", minute).isEqualTo(dealIds(expected, minute));
+        }
+        assertThat(actual.getTimeline().getWindows()).isEqualTo(expected.getTimeline().getWindows());
+        assertThat(actual.getValidationReport().getIssues()).isNotEmpty()
+                .isEqualTo(expected.getValidationReport().getIssues());
+    }
+
+    private static List<String> dealIds(DealSnapshot snapshot, String from, String to, DealRangeMode mode) {
+        return snapshot.getActiveDeals(MinuteOfDay.of(LocalTime.parse(from)), MinuteOfDay.of(LocalTime.parse(to)), mode)
+                .stream()
+                .map(deal -> deal.getDetails().getDealObjectId())
+                .toList();
+    }
+
+    private static List<String> dealIds(DealSnapshot snapshot, int minute) {
+        return snapshot.getActiveDeals(minute).stream()
+                .map(deal -> deal.getDetails().getDealObjectId())
+                .toList();
+    }
+
+    private static List<String> dealIds(DealSnapshot snapshot, String timeOfDay) {
+        return snapshot.getActiveDeals(LocalTime.parse(timeOfDay)).stream()
+                .map(deal -> deal.getDetails().getDealObjectId())
+                .toList();
+    }
+
+    private static RestaurantDto restaurant(String objectId, DealDto... deals) {
+        return new RestaurantDto(objectId, "Test Restaurant", "Test Address", "Test Suburb", List.of("Test Cuisine"),
+                null, LocalTime.of(8, 0), LocalTime.of(22, 0), List.of(deals));
+    }
+
+    private static RestaurantDto restaurant(String open, String close, List<DealDto> deals) {
+        return new RestaurantDto(
+                "id",
+                "Test Restaurant",
+                "Test Address",
+                "Test Suburb",
+                List.of("Test Cuisine"),
+                null,
+                LocalTime.parse(open),
+                LocalTime.parse(close),
+                deals
+        );
+    }
+
+    private static DealDto deal(String objectId, String start, String end) {
+        return new DealDto(
+                objectId,
+                "50",
+                "true",
+                "false",
+                "10",
+                null,
+                null,
+                start != null ? LocalTime.parse(start) : null,
+                end != null ? LocalTime.parse(end) : null
+        );
+    }
+
+}
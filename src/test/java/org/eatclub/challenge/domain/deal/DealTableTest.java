@@ -0,0 +1,71 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DealTableTest {
+
+    @Test
+    void shouldReturn_DetailsOfEachDealRow() {
+        // given
+        var table = DealTable.of(List.of(
+                restaurant("r1", List.of(deal("d1", "50"), deal("d2", "20"))),
+                restaurant("r2", List.of(deal("d3", "50")))
+        ));
+
+        // when
+        var details = table.details(2);
+
+        // then
+        assertThat(table.size()).isEqualTo(3);
+        assertThat(details.getRestaurantObjectId()).isEqualTo("r2");
+        assertThat(details.getRestaurantName()).isEqualTo("Restaurant r2");
+        assertThat(details.getRestaurantAddress1()).isEqualTo("Address r2");
+        assertThat(details.getRestaurantSuburb()).isEqualTo("Suburb");
+        assertThat(details.getRestaurantOpen()).isEqualTo("08:00");
+        assertThat(details.getRestaurantClose()).isEqualTo("22:00");
+        assertThat(details.getDealObjectId()).isEqualTo("d3");
+        assertThat(details.getDiscount()).isEqualTo("50");
+        assertThat(details.getDineIn()).isEqualTo("true");
+        assertThat(details.getLightning()).isEqualTo("false");
+        assertThat(details.getQtyLeft()).isEqualTo("null");
+    }
+
+    @Test
+    void shouldDeduplicate_EqualStrings() {
+        // given discounts parsed into distinct string instances
+        var table = DealTable.of(List.of(
+                restaurant("r1", List.of(deal("d1", new String("50")))),
+                restaurant("r2", List.of(deal("d2", new String("50"))))
+        ));
+
+        // then
+        assertThat(table.details(0).getDiscount()).isSameAs(table.details(1).getDiscount());
+        assertThat(table.details(0).getRestaurantOpen()).isSameAs(table.details(1).getRestaurantOpen());
+    }
+
+    private static RestaurantDto restaurant(String objectId, List<DealDto> deals) {
+        return new RestaurantDto(
+                objectId,
+                "Restaurant " + objectId,
+                "Address " + objectId,
+                "Suburb",
+                List.of("Cuisine"),
+                null,
+                LocalTime.of(8, 0),
+                LocalTime.of(22, 0),
+                deals
+        );
+    }
+
+    private static DealDto deal(String objectId, String discount) {
+        return new DealDto(objectId, discount, "true", "false", null, null, null, null, null);
+    }
+
+}
@@ -0,0 +1,104 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+
+class DealTimelineTest {
+
+    @Test
+    void shouldRunLengthEncode_TheWholeDay() {
+        // given deals 10:00-10:59 and 10:30-11:29
+        var timeline = DealTimeline.of(new int[]{600, 630}, new int[]{659, 689});
+
+        // then
+        assertThat(timeline.getWindows()).containsExactly(
+                window("00:00", "09:59", 0),
+                window("10:00", "10:29", 1),
+                window("10:30", "10:59", 2),
+                window("11:00", "11:29", 1),
+                window("11:30", "23:59", 0)
+        );
+    }
+
+    @Test
+    void shouldReturn_TopWindows_ByCountThenStart() {
+        // given deals 10:00-10:59 and 10:30-11:29
+        var timeline = DealTimeline.of(new int[]{600, 630}, new int[]{659, 689});
+
+        // then windows without active deals are never returned
+        assertThat(timeline.getTopWindows(5)).containsExactly(
+                window("10:30", "10:59", 2),
+                window("10:00", "10:29", 1),
+                window("11:00", "11:29", 1)
+        );
+        assertThat(timeline.getTopWindows(1)).containsExactly(window("10:30", "10:59", 2));
+        assertThat(timeline.getPeakStart()).isEqualTo(LocalTime.of(10, 30));
+        assertThat(timeline.getPeakEnd()).isEqualTo(LocalTime.of(10, 59));
+    }
+
+    @Test
+    void shouldMatch_NewTimeline_When_ApplyingChanges() {
+        // given deals 10:00-10:59 and 10:30-11:29
+        var timeline = DealTimeline.of(new int[]{600, 630}, new int[]{659, 689});
+
+        // when 10:30-11:29 is replaced by 11:00-11:59
+        var updated = timeline.applying(new int[]{630}, new int[]{689}, new int[]{660}, new int[]{719});
+
+        // then
+        assertThat(updated.getWindows()).isEqualTo(DealTimeline.of(new int[]{600, 660}, new int[]{659, 719}).getWindows());
+        assertThat(timeline.countAt(640)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldMatch_SnapshotTimeline_When_BuiltFromRestaurants() {
+        // given deals with valid times, and deals falling back to the restaurant hours
+        List<RestaurantDto> restaurants = List.of(
+                restaurant("08:00", "22:00", deal("10:00", "10:59"), deal(null, "12:00")),
+                restaurant("16:00", "21:00", deal("15:00", "23:00"), deal("18:00", null)));
+
+        // when
+        var timeline = DealTimeline.of(restaurants);
+
+        // then
+        assertThat(timeline.getWindows()).isEqualTo(DealSnapshot.of(restaurants).getTimeline().getWindows());
+    }
+
+    @Test
+    void shouldReturn_NoWindows_OnEmptyTimeline() {
+        var timeline = DealTimeline.of(new int[0], new int[0]);
+
+        assertThat(timeline.getTopWindows(3)).isEmpty();
+        assertThat(timeline.getWindows()).containsExactly(window("00:00", "23:59", 0));
+        assertThat(timeline.getPeakStart()).isNull();
+    }
+
+    @Test
+    void shouldThrowException_When_TopIsNotPositive() {
+        var timeline = DealTimeline.of(new int[0], new int[0]);
+
+        assertThatThrownBy(() -> timeline.getTopWindows(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static RestaurantDto restaurant(String open, String close, DealDto... deals) {
+        return new RestaurantDto("r1", "Test Restaurant", "Test Address", "Test Suburb", List.of("Test Cuisine"),
+                null, LocalTime.parse(open), LocalTime.parse(close), List.of(deals));
+    }
+
+    private static DealDto deal(String start, String end) {
+        return new DealDto("d1", "50", "true", "false", "10", null, null,
+                start != null ? LocalTime.parse(start) : null, end != null ? LocalTime.parse(end) : null);
+    }
+
+    private static DealTimeline.Window window(String start, String end, int count) {
+        return new DealTimeline.Window(LocalTime.parse(start), LocalTime.parse(end), count);
+    }
+
+}
@@ -0,0 +1,53 @@
+package org.eatclub.challenge.domain.deal;
+
+import nl.altindag.log.LogCaptor;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DealValidationWriterTest {
+
+    @Test
+    void shouldLog_OnlyTheIssuesNotInTheLastWrittenReport() {
+        // given
+        var logCaptor = LogCaptor.forClass(DealLogger.class);
+        var writer = new DealValidationWriter(new DealLogger());
+
+        var missingStart = new DealValidationIssue("r1", "d1", DealValidationIssue.Type.INVALID_START_TIME, "10:00");
+        var missingEnd = new DealValidationIssue("r1", "d2", DealValidationIssue.Type.INVALID_END_TIME, "22:00");
+
+        // when
+        writer.write(report(missingStart, missingStart));
+        writer.write(report(missingStart, missingEnd));
+        writer.write(report(missingStart, missingEnd));
+
+        // then
+        assertThat(logCaptor.getWarnLogs()).containsExactly(
+                "{\"id\" : \"d1\", \"error\" : \"INVALID_START_TIME\", \"fallbackValue\" : \"10:00\" }",
+                "{\"id\" : \"d2\", \"error\" : \"INVALID_END_TIME\", \"fallbackValue\" : \"22:00\" }"
+        );
+    }
+
+    @Test
+    void shouldWrite_TheQueuedReports_BeforeClosing() {
+        // given
+        var logCaptor = LogCaptor.forClass(DealLogger.class);
+        var writer = new DealValidationWriter(new DealLogger());
+        writer.submit(report(new DealValidationIssue("r1", "d1", DealValidationIssue.Type.INVALID_START_TIME, "10:00")));
+
+        // when
+        writer.close();
+
+        // then
+        assertThat(logCaptor.getWarnLogs()).hasSize(1);
+    }
+
+    private static DealValidationReport report(DealValidationIssue... issues) {
+        var report = new DealValidationReport.Builder();
+        for (DealValidationIssue issue : issues) {
+            report.add(issue);
+        }
+        return report.build();
+    }
+
+}
@@ -0,0 +1,54 @@
+package org.eatclub.challenge.domain.deal;
+
+import org.eatclub.challenge.common.MinuteOfDay;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DealWindowScanTest {
+
+    @Test
+    void shouldMatch_LinearFilter_ForRandomRanges() {
+        // given random deal windows, not filling the last bitmap word
+        var random = new Random(42);
+        int[] firstMinutes = new int[1000];
+        int[] lastMinutes = new int[1000];
+        for (int ordinal = 0; ordinal < firstMinutes.length; ordinal++) {
+            firstMinutes[ordinal] = random.nextInt(MinuteOfDay.MINUTES_PER_DAY);
+            lastMinutes[ordinal] = firstMinutes[ordinal] + random.nextInt(MinuteOfDay.MINUTES_PER_DAY - firstMinutes[ordinal]);
+        }
+
+        // then both scans agree with filtering every deal, in ordinal order
+        for (int query = 0; query < 1000; query++) {
+            int maxFirstMinute = random.nextInt(MinuteOfDay.MINUTES_PER_DAY);
+            int minLastMinute = random.nextInt(MinuteOfDay.MINUTES_PER_DAY);
+            int[] expected = IntStream.range(0, firstMinutes.length)
+                    .filter(ordinal -> firstMinutes[ordinal] <= maxFirstMinute && lastMinutes[ordinal] >= minLastMinute)
+                    .toArray();
+
+            assertThat(DealWindowScan.SCALAR.find(firstMinutes, lastMinutes, maxFirstMinute, minLastMinute).toArray())
+                    .as("start <= %d, end >= %d", maxFirstMinute, minLastMinute)
+                    .containsExactly(expected);
+            assertThat(DealWindowScan.get().find(firstMinutes, lastMinutes, maxFirstMinute, minLastMinute).toArray())
+                    .as("start <= %d, end >= %d", maxFirstMinute, minLastMinute)
+                    .containsExactly(expected);
+        }
+    }
+
+    @Test
+    void shouldBeVectorised_When_VectorModuleIsAdded() {
+        assumeTrue(ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent());
+
+        assertThat(DealWindowScan.get()).isInstanceOf(VectorDealWindowScan.class);
+    }
+
+    @Test
+    void shouldFindNothing_OnNoDeals() {
+        assertThat(DealWindowScan.get().find(new int[0], new int[0], 1439, 0).isEmpty()).isTrue();
+    }
+
+}
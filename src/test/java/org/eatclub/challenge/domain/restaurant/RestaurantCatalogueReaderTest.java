@@ -0,0 +1,77 @@
+package org.eatclub.challenge.domain.restaurant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
+
+class RestaurantCatalogueReaderTest {
+
+    private final RestaurantCatalogueReader reader = new RestaurantCatalogueReader(new ObjectMapper());
+
+    @Test
+    void shouldRead_RestaurantsInOrder() throws IOException {
+        // given
+        String json = """
+                {
+                  "restaurants": [
+                    {"objectId": "r1", "name": "First", "open": "8:00am", "close": "10:00PM",
+                     "deals": [{"objectId": "d1", "discount": "50", "start": "3:00pm", "end": "9:00pm"}]},
+                    {"objectId": "r2", "name": "Second", "open": "9:00am", "close": "5:00pm", "deals": []}
+                  ]
+                }
+                """;
+
+        // when
+        List<RestaurantDto> restaurants = read(json);
+
+        // then
+        assertThat(restaurants).extracting(RestaurantDto::objectId).containsExactly("r1", "r2");
+        assertThat(restaurants.getFirst().close()).isEqualTo(LocalTime.of(22, 0));
+        assertThat(restaurants.getFirst().deals()).extracting(DealDto::start).containsExactly(LocalTime.of(15, 0));
+    }
+
+    @Test
+    void shouldSkip_UnknownFields() throws IOException {
+        // given
+        String json = """
+                {
+                  "version": {"major": 1},
+                  "restaurants": [{"objectId": "r1", "rating": 4.5, "deals": []}],
+                  "tags": ["a", "b"]
+                }
+                """;
+
+        // when + then
+        assertThat(read(json)).extracting(RestaurantDto::objectId).containsExactly("r1");
+    }
+
+    @Test
+    void shouldRead_NoRestaurants_OnEmptyBody() throws IOException {
+        assertThat(read("")).isEmpty();
+        assertThat(read("{\"restaurants\": null}")).isEmpty();
+    }
+
+    @Test
+    void shouldThrowException_On_TruncatedCatalogue() {
+        assertThatThrownBy(() -> read("{\"restaurants\": [{\"objectId\": \"r1\""))
+                .isInstanceOf(IOException.class);
+    }
+
+    private List<RestaurantDto> read(String json) throws IOException {
+        List<RestaurantDto> restaurants = new ArrayList<>();
+        reader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), restaurants::add);
+        return restaurants;
+    }
+
+}
@@ -0,0 +1,330 @@
+package org.eatclub.challenge.domain.restaurant;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eatclub.challenge.config.CatalogueProperties;
+import org.eatclub.challenge.config.RestConfiguration;
+import org.eatclub.challenge.config.UpstreamProperties;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.eatclub.challenge.domain.restaurant.StubCatalogueServer.catalogue;
+
+class RestaurantServiceTest {
+
+    private final StubCatalogueServer server = new StubCatalogueServer();
+    private final ArrayList<Object> events = new ArrayList<>();
+    private final MutableClock clock = new MutableClock();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RestaurantService service = new RestaurantService(
+            new RestTemplate(), new ObjectMapper(), events::add, server.url());
+
+    @AfterEach
+    void stopServer() {
+        service.shutdown();
+        server.close();
+    }
+
+    @Test
+    void shouldServe_CurrentCatalogue_WithoutFetching_AfterShutdown() {
+        // given
+        server.serving(catalogue("r1"), null);
+        service.refreshRestaurants();
+
+        // when
+        service.shutdown();
+        server.serving(catalogue("r2"), null);
+        service.refreshRestaurants();
+
+        // then
+        assertThat(service.getRestaurants()).extracting(RestaurantDto::objectId).containsExactly("r1");
+        assertThat(server.requests()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFetch_OnlyOnce_When_CatalogueIsLoaded() {
+        // given
+        server.serving(catalogue("r1"), null);
+
+        // when
+        service.getRestaurants();
+        service.getRestaurants();
+
+        // then
+        assertThat(server.requests()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldSwap_Catalogue_OnRefresh() {
+        // given
+        server.serving(catalogue("r1"), null);
+        service.refreshRestaurants();
+
+        // when
+        server.serving(catalogue("r2"), null);
+        service.refreshRestaurants();
+
+        // then
+        assertThat(service.getRestaurants()).extracting(RestaurantDto::objectId).containsExactly("r2");
+        assertThat(service.getRefreshCounters().getRebuilds()).isEqualTo(2);
+        assertThat(events).hasSize(2);
+    }
+
+    @Test
+    void shouldServe_PreviousCatalogue_When_RefreshFails() {
+        // given
+        server.serving(catalogue("r1"), null);
+        service.refreshRestaurants();
+
+        // when the external API returns an unparseable body
+        server.serving("{\"restaurants\":", null);
+        service.refreshRestaurants();
+
+        // then
+        assertThat(service.getRestaurants()).extracting(RestaurantDto::objectId).containsExactly("r1");
+        assertThat(server.requests()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldKeep_Catalogue_When_NotModified() {
+        // given
+        server.serving(catalogue("r1"), "\"v1\"");
+        service.refreshRestaurants();
+        var loaded = service.getRestaurants();
+
+        // when
+        service.refreshRestaurants();
+
+        // then
+        assertThat(service.getRestaurants()).isSameAs(loaded);
+        assertThat(service.getRefreshCounters().getNotModified()).isEqualTo(1);
+        assertThat(service.getRefreshCounters().getRebuilds()).isEqualTo(1);
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    void shouldKeep_Catalogue_When_ContentHashIsUnchanged() {
+        // given an external API without validators
+        server.serving(catalogue("r1"), null);
+        service.refreshRestaurants();
+        var loaded = service.getRestaurants();
+
+        // when
+        service.refreshRestaurants();
+
+        // then
+        assertThat(service.getRestaurants()).isSameAs(loaded);
+        assertThat(service.getRefreshCounters().getUnchangedContent()).isEqualTo(1);
+        assertThat(service.getRefreshCounters().getRebuilds()).isEqualTo(1);
+        assertThat(events).hasSize(1);
+    }
+
+    @Test
+    void shouldCoalesce_ConcurrentLoads() throws Exception {
+        // given an external API blocked until released
+        var entered = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        server.serving(catalogue("r1"), null).beforeResponse(() -> {
+            entered.countDown();
+            await(release);
+        });
+
+        // when
+        var first = CompletableFuture.supplyAsync(service::getRestaurants);
+        assertThat(entered.await(5, TimeUnit.SECONDS)).isTrue();
+        var second = CompletableFuture.supplyAsync(service::getRestaurants);
+        Thread.sleep(100);
+        release.countDown();
+
+        // then
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(second.get(5, TimeUnit.SECONDS));
+        assertThat(server.requests()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldFail_When_ExternalApiExceedsReadTimeout() {
+        // given an external API slower than the read timeout
+        var upstream = new UpstreamProperties(Duration.ofSeconds(1), Duration.ofMillis(200));
+        var configuration = new RestConfiguration();
+        var restTemplate = configuration.restTemplate(
+                configuration.upstreamHttpClient(upstream, null), upstream);
+        var boundedService = new RestaurantService(restTemplate, new ObjectMapper(), events::add, server.url());
+
+        var release = new CountDownLatch(1);
+        server.serving(catalogue("r1"), null).beforeResponse(() -> await(release));
+
+        // when / then
+        try {
+            assertThatThrownBy(boundedService::getRestaurants).isInstanceOf(ResourceAccessException.class);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void shouldMerge_Sources_InOrder_SkippingDuplicateObjectIds() {
+        try (var other = new StubCatalogueServer()) {
+            // given
+            server.serving(catalogue("r1", "r2"), null);
+            other.serving(catalogue("r2", "r3"), null);
+            var federated = federatedService(other, Duration.ofHours(1));
+
+            // when
+            var restaurants = federated.getRestaurants();
+
+            // then
+            assertThat(restaurants).extracting(RestaurantDto::objectId).containsExactly("r1", "r2", "r3");
+            assertThat(federated.getSourceStatuses()).extracting(CatalogueSourceStatus::restaurants).containsExactly(2, 2);
+        }
+    }
+
+    @Test
+    void shouldKeep_LastGoodCatalogue_OfFailingSource() {
+        try (var other = new StubCatalogueServer()) {
+            // given
+            server.serving(catalogue("r1"), null);
+            other.serving(catalogue("r2"), null);
+            var federated = federatedService(other, Duration.ofHours(1));
+            var loaded = federated.getRestaurants();
+
+            // when the second source fails
+            other.serving("{\"restaurants\":", null);
+            clock.advance(Duration.ofMinutes(5));
+            federated.refreshRestaurants();
+
+            // then
+            assertThat(federated.getRestaurants()).isSameAs(loaded);
+            assertThat(events).hasSize(1);
+            var status = federated.getSourceStatuses().get(1);
+            assertThat(status.lastFailure()).isEqualTo(clock.instant());
+            assertThat(status.lastError()).isNotNull();
+            assertThat(status.stale()).isFalse();
+        }
+    }
+
+    @Test
+    void shouldDrop_CatalogueOfFailingSource_When_Stale() {
+        try (var other = new StubCatalogueServer()) {
+            // given
+            server.serving(catalogue("r1"), null);
+            other.serving(catalogue("r2"), null);
+            var federated = federatedService(other, Duration.ofMinutes(10));
+            federated.getRestaurants();
+
+            // when the second source keeps failing for longer than its maximum staleness
+            other.serving("{\"restaurants\":", null);
+            clock.advance(Duration.ofMinutes(11));
+            federated.refreshRestaurants();
+
+            // then
+            assertThat(federated.getRestaurants()).extracting(RestaurantDto::objectId).containsExactly("r1");
+            assertThat(federated.getSourceStatuses().get(1).stale()).isTrue();
+            assertThat(events).hasSize(2);
+        }
+    }
+
+    @Test
+    void shouldFail_WithTheErrorsOfThisRefresh_When_EverySourceFails() {
+        try (var other = new StubCatalogueServer()) {
+            // given
+            server.serving("{\"restaurants\":", null);
+            other.serving("{\"restaurants\":", null);
+            var federated = federatedService(other, Duration.ofHours(1));
+
+            // when
+            Throwable first = catchThrowable(federated::getRestaurants);
+            Throwable second = catchThrowable(federated::getRestaurants);
+
+            // then the errors of the sources never accumulate
+            assertThat(first).isNotSameAs(second);
+            for (Throwable error : List.of(first, second)) {
+                assertThat(error).isInstanceOf(RestClientException.class).hasCauseInstanceOf(RuntimeException.class);
+                assertThat(error.getSuppressed()).hasSize(1);
+                assertThat(error.getCause().getSuppressed()).isEmpty();
+                assertThat(error.getSuppressed()[0].getSuppressed()).isEmpty();
+            }
+        }
+    }
+
+    @Test
+    void shouldTime_Fetches_PerSourceAndOutcome() {
+        try (var other = new StubCatalogueServer()) {
+            // given
+            server.serving(catalogue("r1"), null);
+            other.serving("{\"restaurants\":", null);
+            var federated = federatedService(other, Duration.ofHours(1));
+
+            // when
+            federated.refreshRestaurants();
+
+            // then
+            assertThat(meterRegistry.get("eatclub.catalogue.fetch").tags("source", "first", "outcome", "success")
+                    .timer().count()).isEqualTo(1);
+            assertThat(meterRegistry.get("eatclub.catalogue.fetch").tags("source", "second", "outcome", "failure")
+                    .timer().count()).isEqualTo(1);
+        }
+    }
+
+    private RestaurantService federatedService(StubCatalogueServer other, Duration otherMaxStaleness) {
+        var properties = new CatalogueProperties(2, List.of(
+                new CatalogueProperties.Source("first", server.url(), Duration.ofHours(1)),
+                new CatalogueProperties.Source("second", other.url(), otherMaxStaleness)));
+
+        return new RestaurantService(new RestTemplate(), new ObjectMapper(), events::add, properties, clock, meterRegistry);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * Clock standing still until advanced.
+     */
+    private static class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2025-01-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package org.eatclub.challenge.domain.restaurant;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Local HTTP server standing in for the external restaurant API in tests.
+ * Serves the configured catalogue body with an optional ETag, and answers 304 when the ETag matches.
+ */
+class StubCatalogueServer implements AutoCloseable {
+
+    private final HttpServer server;
+    private final AtomicReference<String> body = new AtomicReference<>("{\"restaurants\":[]}");
+    private final AtomicReference<String> etag = new AtomicReference<>();
+    private final AtomicReference<Runnable> beforeResponse = new AtomicReference<>(() -> {});
+    private final AtomicInteger requests = new AtomicInteger();
+
+    StubCatalogueServer() {
+        try {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.createContext("/challengedata.json", this::handle);
+        server.start();
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort() + "/challengedata.json";
+    }
+
+    StubCatalogueServer serving(String body, String etag) {
+        this.body.set(body);
+        this.etag.set(etag);
+        return this;
+    }
+
+    StubCatalogueServer beforeResponse(Runnable action) {
+        beforeResponse.set(action);
+        return this;
+    }
+
+    int requests() {
+        return requests.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        beforeResponse.get().run();
+
+        String currentEtag = etag.get();
+        if (currentEtag != null) {
+            exchange.getResponseHeaders().set("ETag", currentEtag);
+        }
+
+        if (currentEtag != null && currentEtag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+
+        byte[] bytes = body.get().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    /**
+     * Returns a catalogue body holding one restaurant without deals per given object id.
+     */
+    static String catalogue(String... restaurantObjectIds) {
+        StringBuilder json = new StringBuilder("{\"restaurants\":[");
+        for (int i = 0; i < restaurantObjectIds.length; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"objectId\":\"").append(restaurantObjectIds[i]).append("\",")
+                    .append("\"name\":\"Test Restaurant\",\"address1\":\"Test Address\",\"suburb\":\"Test Suburb\",")
+                    .append("\"cuisines\":[\"Test Cuisine\"],\"open\":\"8:00am\",\"close\":\"10:00pm\",\"deals\":[]}");
+        }
+        return json.append("]}").toString();
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.eatclub.challenge.jackson;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eatclub.challenge.common.MinuteOfDay;
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CaseInsensitiveLocalTimeDeserializerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldParse_TimesInAnyCase() throws Exception {
+        assertThat(start("3:05pm")).isEqualTo(LocalTime.of(15, 5));
+        assertThat(start("3:05PM")).isEqualTo(LocalTime.of(15, 5));
+        assertThat(start("11:40aM")).isEqualTo(LocalTime.of(11, 40));
+        assertThat(start("03:05Am")).isEqualTo(LocalTime.of(3, 5));
+    }
+
+    @Test
+    void shouldParse_MiddayAndMidnight() throws Exception {
+        assertThat(start("12:00am")).isEqualTo(LocalTime.MIDNIGHT);
+        assertThat(start("12:30pm")).isEqualTo(LocalTime.of(12, 30));
+        assertThat(start("11:59pm")).isEqualTo(LocalTime.of(23, 59));
+    }
+
+    @Test
+    void shouldIgnore_SurroundingWhitespace() throws Exception {
+        assertThat(start(" \\t6:15pm ")).isEqualTo(LocalTime.of(18, 15));
+    }
+
+    @Test
+    void shouldReturn_SharedInstances() throws Exception {
+        assertThat(start("6:15pm")).isSameAs(MinuteOfDay.toLocalTime(18 * 60 + 15));
+    }
+
+    @Test
+    void shouldFallBack_ToFormatter_OnUnusualTimes() throws Exception {
+        // the formatter resolves the out of range clock hour 0 leniently
+        assertThat(start("0:30am")).isEqualTo(LocalTime.of(0, 30));
+    }
+
+    @Test
+    void shouldThrowException_When_TimeIsMalformed() {
+        for (String time : new String[]{"13:00pm", "3:5pm", "3:60pm", "3:05 pm", "3:05xm", "15:05", ""}) {
+            assertThatThrownBy(() -> start(time))
+                    .as(time)
+                    .isInstanceOf(JsonMappingException.class);
+        }
+    }
+
+    @Test
+    void shouldAgree_WithFormatter_OnEveryMinuteOfTheDay() {
+        for (int minuteOfDay = 0; minuteOfDay < MinuteOfDay.MINUTES_PER_DAY; minuteOfDay++) {
+            int hour = minuteOfDay / 60;
+            String time = (hour % 12 == 0 ? 12 : hour % 12) + ":" + String.format("%02d", minuteOfDay % 60)
+                    + (hour < 12 ? "am" : "pm");
+
+            assertThat(CaseInsensitiveLocalTimeDeserializer.parseMinuteOfDay(time.toCharArray(), 0, time.length()))
+                    .as(time)
+                    .isEqualTo(minuteOfDay);
+        }
+    }
+
+    private LocalTime start(String time) throws Exception {
+        return objectMapper.readValue("{\"start\":\"" + time + "\"}", DealDto.class).start();
+    }
+
+}
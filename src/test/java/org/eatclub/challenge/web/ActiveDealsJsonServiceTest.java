@@ -0,0 +1,95 @@
+package org.eatclub.challenge.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eatclub.challenge.config.CatalogueProperties;
+import org.eatclub.challenge.domain.deal.DealService;
+import org.eatclub.challenge.domain.deal.DealSnapshotBuiltEvent;
+import org.eatclub.challenge.domain.restaurant.RestaurantService;
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.eatclub.challenge.web.cache.ActiveDealsResponseCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActiveDealsJsonServiceTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ActiveDealsResponseCache responseCache = new ActiveDealsResponseCache(objectMapper, Long.MAX_VALUE);
+
+    private ActiveDealsJsonService activeDealsJsonService;
+
+    @Test
+    void shouldWrite_TheResponses_FromTheFragmentsOfTheBuiltSnapshot() {
+        // given a service listening for the built snapshots
+        var dealService = dealService(event -> activeDealsJsonService.onSnapshotBuilt((DealSnapshotBuiltEvent) event));
+        activeDealsJsonService = new ActiveDealsJsonService(dealService, responseCache, new SimpleMeterRegistry());
+
+        // when
+        String json = activeDealsJson("10:30");
+
+        // then
+        assertThat(json).contains("\"d1\"").doesNotContain("\"d2\"");
+        assertThat(responseCache.getMisses()).isZero();
+    }
+
+    @Test
+    void shouldCache_TheResponses_When_TheFragmentsOfTheSnapshotAreNotBuilt() {
+        // given a service missing the built snapshots
+        var dealService = dealService(event -> {
+        });
+        activeDealsJsonService = new ActiveDealsJsonService(dealService, responseCache, new SimpleMeterRegistry());
+
+        // when
+        String first = activeDealsJson("10:30");
+        String second = activeDealsJson("10:30");
+
+        // then
+        assertThat(first).contains("\"d1\"").doesNotContain("\"d2\"").isEqualTo(second);
+        assertThat(responseCache.getMisses()).isEqualTo(1);
+        assertThat(responseCache.getHits()).isEqualTo(1);
+    }
+
+    private String activeDealsJson(String timeOfDay) {
+        return new String(activeDealsJsonService.getActiveDealsJson(timeOfDay).toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static DealService dealService(ApplicationEventPublisher eventPublisher) {
+        var restaurants = List.of(new RestaurantDto("r1", "Test Restaurant", "Test Address", "Test Suburb",
+                List.of("Test Cuisine"), null, LocalTime.of(8, 0), LocalTime.of(22, 0),
+                List.of(deal("d1", "10:00", "12:00"), deal("d2", "15:00", "16:00"))));
+
+        return new DealService(new FixedRestaurantService(restaurants), new SimpleMeterRegistry(), eventPublisher);
+    }
+
+    private static DealDto deal(String objectId, String start, String end) {
+        return new DealDto(objectId, "50", "true", "false", "10", null, null, LocalTime.parse(start), LocalTime.parse(end));
+    }
+
+    /**
+     * Restaurant service serving a fixed catalogue, without calling the external API.
+     */
+    private static class FixedRestaurantService extends RestaurantService {
+
+        private final List<RestaurantDto> restaurants;
+
+        private FixedRestaurantService(List<RestaurantDto> restaurants) {
+            super(new RestTemplate(), new ObjectMapper(), event -> {
+            }, new CatalogueProperties(1, List.of()), new SimpleMeterRegistry());
+            this.restaurants = restaurants;
+        }
+
+        @Override
+        public List<RestaurantDto> getRestaurants() {
+            return restaurants;
+        }
+    }
+
+}
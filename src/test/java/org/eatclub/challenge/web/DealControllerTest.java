@@ -0,0 +1,180 @@
+package org.eatclub.challenge.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eatclub.challenge.config.CatalogueProperties;
+import org.eatclub.challenge.domain.deal.DealService;
+import org.eatclub.challenge.domain.deal.DealSnapshotBuiltEvent;
+import org.eatclub.challenge.domain.restaurant.RestaurantService;
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.eatclub.challenge.web.cache.ActiveDealsResponseCache;
+import org.eatclub.challenge.web.response.ActiveDealsJson;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DealControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FixedRestaurantService restaurantService = new FixedRestaurantService(List.of(
+            restaurant("r1", deal("d1", "10:00", "12:00"), deal("d2", "10:00", "11:00"), deal("d3", "15:00", "16:00")),
+            restaurant("r2", deal("d4", "09:00", "11:00"), deal("d5", "10:30", "10:45"))));
+    private final DealService dealService = new DealService(restaurantService, new SimpleMeterRegistry(),
+            event -> this.activeDealsJsonService.onSnapshotBuilt((DealSnapshotBuiltEvent) event));
+    private final ActiveDealsJsonService activeDealsJsonService = new ActiveDealsJsonService(
+            dealService, new ActiveDealsResponseCache(objectMapper, Long.MAX_VALUE), new SimpleMeterRegistry());
+    private final DealController controller = new DealController(dealService, activeDealsJsonService);
+
+    @Test
+    void shouldPage_ThroughActiveDeals_InCatalogueOrder() throws IOException {
+        // when following the cursors with a limit of 2
+        List<String> dealIds = new ArrayList<>();
+        List<JsonNode> pages = new ArrayList<>();
+        String cursor = null;
+        do {
+            JsonNode page = objectMapper.readTree(activeDeals("10:30", 2, cursor, null));
+            page.get("deals").forEach(deal -> dealIds.add(deal.get("dealObjectId").asText()));
+            pages.add(page);
+            cursor = page.has("nextCursor") ? page.get("nextCursor").asText() : null;
+        } while (cursor != null);
+
+        // then
+        assertThat(dealIds).containsExactly("d1", "d2", "d4", "d5");
+        assertThat(pages).hasSize(2);
+    }
+
+    @Test
+    void shouldWrite_RequestedFieldsOnly() throws IOException {
+        // when
+        JsonNode page = objectMapper.readTree(activeDeals("15:30", null, null, "discount, dealObjectId"));
+
+        // then fields follow the response order, and the page of every deal has no cursor
+        JsonNode deal = page.get("deals").get(0);
+        assertThat(deal.fieldNames()).toIterable().containsExactly("dealObjectId", "discount");
+        assertThat(deal.get("dealObjectId").asText()).isEqualTo("d3");
+        assertThat(page.has("nextCursor")).isFalse();
+    }
+
+    @Test
+    void shouldMatch_FullResponse_When_AllFieldsAreRequested() throws IOException {
+        // when
+        JsonNode page = objectMapper.readTree(activeDeals("10:30", 10, null, null));
+        JsonNode full = objectMapper.readTree(activeDeals("10:30", null, null, null));
+
+        // then
+        assertThat(page).isEqualTo(full);
+    }
+
+    @Test
+    void shouldThrowException_When_CursorHasExpired() throws IOException {
+        // given the cursor of a first page
+        String cursor = objectMapper.readTree(activeDeals("10:30", 2, null, null)).get("nextCursor").asText();
+
+        // when the catalogue is refreshed
+        restaurantService.restaurants = new ArrayList<>(restaurantService.restaurants);
+
+        // then
+        assertThatThrownBy(() -> activeDeals("10:30", 2, cursor, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> activeDeals("10:30", 2, "not-a-cursor", null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> activeDeals("10:30", null, null, "unknown"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldFilter_ActiveDeals_ByAttributes() throws IOException {
+        // given
+        restaurantService.restaurants = List.of(
+                restaurant("r1", "Melbourne", List.of("Thai"),
+                        deal("d1", "50", "true", "09:00", "12:00"), deal("d2", "20", "false", "10:00", "11:00")),
+                restaurant("r2", "Richmond", List.of("Thai", "Indian"),
+                        deal("d3", "30", "true", "10:00", "12:00"), deal("d4", "40", "true", "15:00", "16:00")));
+
+        // then
+        assertThat(dealIds(controller.getActiveDeals("10:30", null, null, null, "melbourne", null, null, null, null)))
+                .containsExactly("d1", "d2");
+        assertThat(dealIds(controller.getActiveDeals("10:30", null, null, null, null, "thai", true, null, 30)))
+                .containsExactly("d1", "d3");
+        assertThat(dealIds(controller.getActiveDeals("10:30", null, null, null, null, "Indian", null, null, 35)))
+                .isEmpty();
+        assertThat(dealIds(controller.getActiveDeals("10:30", null, null, null, "Carlton", null, null, null, null)))
+                .isEmpty();
+    }
+
+    @Test
+    void shouldAccept_TheCursor_OfTheSameFilter_Only() throws IOException {
+        // given the cursor of a first page of Richmond deals
+        restaurantService.restaurants = List.of(
+                restaurant("r1", "Richmond", List.of("Thai"),
+                        deal("d1", "50", "true", "09:00", "12:00"), deal("d2", "20", "false", "10:00", "11:00")),
+                restaurant("r2", "Carlton", List.of("Thai"), deal("d3", "30", "true", "10:00", "12:00")));
+        String cursor = objectMapper.readTree(controller.getActiveDeals("10:30", 1, null, null, "Richmond", null, null,
+                null, null).toByteArray()).get("nextCursor").asText();
+
+        // then the filter matching the same deals continues the pages
+        assertThat(dealIds(controller.getActiveDeals("10:30", 1, cursor, null, " richmond", null, null, null, null)))
+                .containsExactly("d2");
+        assertThatThrownBy(() -> controller.getActiveDeals("10:30", 1, cursor, null, "Carlton", null, null, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> controller.getActiveDeals("10:30", 1, cursor, null, "Richmond", null, true, null, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private byte[] activeDeals(String timeOfDay, Integer limit, String cursor, String fields) {
+        return controller.getActiveDeals(timeOfDay, limit, cursor, fields, null, null, null, null, null).toByteArray();
+    }
+
+    private List<String> dealIds(ActiveDealsJson json) throws IOException {
+        List<String> dealIds = new ArrayList<>();
+        objectMapper.readTree(json.toByteArray()).get("deals").forEach(deal -> dealIds.add(deal.get("dealObjectId").asText()));
+        return dealIds;
+    }
+
+    private static RestaurantDto restaurant(String objectId, String suburb, List<String> cuisines, DealDto... deals) {
+        return new RestaurantDto(objectId, "Test Restaurant", "Test Address", suburb, cuisines,
+                null, LocalTime.of(8, 0), LocalTime.of(22, 0), List.of(deals));
+    }
+
+    private static DealDto deal(String objectId, String discount, String dineIn, String start, String end) {
+        return new DealDto(objectId, discount, dineIn, "false", "10", null, null, LocalTime.parse(start), LocalTime.parse(end));
+    }
+
+    private static RestaurantDto restaurant(String objectId, DealDto... deals) {
+        return new RestaurantDto(objectId, "Test Restaurant", "Test Address", "Test Suburb", List.of("Test Cuisine"),
+                null, LocalTime.of(8, 0), LocalTime.of(22, 0), List.of(deals));
+    }
+
+    private static DealDto deal(String objectId, String start, String end) {
+        return new DealDto(objectId, "50", "true", "false", "10", null, null, LocalTime.parse(start), LocalTime.parse(end));
+    }
+
+    /**
+     * Restaurant service serving a fixed catalogue, without calling the external API.
+     */
+    private static class FixedRestaurantService extends RestaurantService {
+
+        private List<RestaurantDto> restaurants;
+
+        private FixedRestaurantService(List<RestaurantDto> restaurants) {
+            super(new RestTemplate(), new ObjectMapper(), event -> {
+            }, new CatalogueProperties(1, List.of()), new SimpleMeterRegistry());
+            this.restaurants = restaurants;
+        }
+
+        @Override
+        public List<RestaurantDto> getRestaurants() {
+            return restaurants;
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package org.eatclub.challenge.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.eatclub.challenge.config.CatalogueProperties;
+import org.eatclub.challenge.domain.deal.DealFilter;
+import org.eatclub.challenge.domain.deal.DealService;
+import org.eatclub.challenge.domain.deal.DealSnapshotBuiltEvent;
+import org.eatclub.challenge.domain.restaurant.RestaurantService;
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.eatclub.challenge.web.cache.ActiveDealsResponseCache;
+import org.eatclub.challenge.web.response.ActiveDealsResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReactiveDealControllerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DealService dealService = new DealService(
+            new FixedRestaurantService(List.of(
+                    restaurant("r1", "Test Suburb", deal("d1", "10:00", "12:00", "50"), deal("d2", "15:00", "16:00", "50")),
+                    restaurant("r2", "Richmond", deal("d3", "09:00", "11:00", "30")))),
+            new SimpleMeterRegistry(),
+            event -> this.activeDealsJsonService.onSnapshotBuilt((DealSnapshotBuiltEvent) event));
+    private final ActiveDealsJsonService activeDealsJsonService = new ActiveDealsJsonService(
+            dealService, new ActiveDealsResponseCache(objectMapper, Long.MAX_VALUE), new SimpleMeterRegistry());
+    private final ReactiveDealController controller = new ReactiveDealController(dealService, activeDealsJsonService,
+            objectMapper);
+
+    @Test
+    void shouldStream_SameJson_AsServletStack() {
+        // when
+        String streamed = join(controller.getActiveDeals("10:30", null, null, null, null, null, null, null, null)
+                .collectList().block());
+
+        // then
+        assertThat(streamed).isEqualTo(new String(activeDealsJsonService.getActiveDealsJson("10:30").toByteArray(), StandardCharsets.UTF_8));
+        assertThat(streamed).contains("\"d1\"", "\"d3\"").doesNotContain("\"d2\"");
+    }
+
+    @Test
+    void shouldStream_EmptyArray_When_NoDealIsActive() {
+        assertThat(join(controller.getActiveDeals("23:00", null, null, null, null, null, null, null, null)
+                .collectList().block())).isEqualTo("{\"deals\":[]}");
+    }
+
+    @Test
+    void shouldStream_OneDeal_PerElement() {
+        // when
+        List<ActiveDealsResponse.DealDto> deals = controller.streamActiveDeals("10:30", null, null, null, null, null, null,
+                null, null).collectList().block();
+
+        // then
+        assertThat(deals).extracting(ActiveDealsResponse.DealDto::dealObjectId).containsExactly("d1", "d3");
+    }
+
+    @Test
+    void shouldFilter_AsServletStack() {
+        // when
+        String streamed = join(controller.getActiveDeals("10:30", null, null, null, "richmond", null, null, null, null)
+                .collectList().block());
+        List<ActiveDealsResponse.DealDto> deals = controller.streamActiveDeals("10:30", null, null, null, null, null, null,
+                null, 40).collectList().block();
+
+        // then
+        assertThat(streamed).contains("\"d3\"").doesNotContain("\"d1\"");
+        assertThat(deals).extracting(ActiveDealsResponse.DealDto::dealObjectId).containsExactly("d1");
+    }
+
+    @Test
+    void shouldPage_AsServletStack() {
+        // when
+        String page = join(controller.getActiveDeals("10:30", 1, null, "dealObjectId", null, null, null, null, null)
+                .collectList().block());
+
+        // then
+        assertThat(page).isEqualTo(new String(activeDealsJsonService.getActiveDealsPageJson("10:30", DealFilter.NONE, 1, null,
+                "dealObjectId"), StandardCharsets.UTF_8));
+        assertThat(page).contains("\"d1\"", "nextCursor").doesNotContain("\"d3\"");
+    }
+
+    @Test
+    void shouldReject_PagesOfTheStream() {
+        assertThatThrownBy(() -> controller.streamActiveDeals("10:30", 1, null, null, null, null, null, null, null)
+                .collectList().block())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String join(List<DataBuffer> buffers) {
+        StringBuilder json = new StringBuilder();
+        for (DataBuffer buffer : buffers) {
+            json.append(buffer.toString(StandardCharsets.UTF_8));
+        }
+        return json.toString();
+    }
+
+    private static RestaurantDto restaurant(String objectId, String suburb, DealDto... deals) {
+        return new RestaurantDto(objectId, "Test Restaurant", "Test Address", suburb, List.of("Test Cuisine"),
+                null, LocalTime.of(8, 0), LocalTime.of(22, 0), List.of(deals));
+    }
+
+    private static DealDto deal(String objectId, String start, String end, String discount) {
+        return new DealDto(objectId, discount, "true", "false", "10", null, null, LocalTime.parse(start), LocalTime.parse(end));
+    }
+
+    /**
+     * Restaurant service serving a fixed catalogue, without calling the external API.
+     */
+    private static class FixedRestaurantService extends RestaurantService {
+
+        private final List<RestaurantDto> restaurants;
+
+        private FixedRestaurantService(List<RestaurantDto> restaurants) {
+            super(new RestTemplate(), new ObjectMapper(), event -> {
+            }, new CatalogueProperties(1, List.of()), new SimpleMeterRegistry());
+            this.restaurants = restaurants;
+        }
+
+        @Override
+        public List<RestaurantDto> getRestaurants() {
+            return restaurants;
+        }
+    }
+
+}
@@ -0,0 +1,82 @@
+package org.eatclub.challenge.web.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eatclub.challenge.domain.deal.DealSnapshot;
+import org.eatclub.challenge.web.response.ActiveDealsResponse;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActiveDealsResponseCacheTest {
+
+    private static final String EMPTY_RESPONSE = "{\"deals\":[]}";
+
+    private final AtomicInteger renders = new AtomicInteger();
+
+    @Test
+    void shouldRender_EachMinuteOnce_PerSnapshot() {
+        // given
+        var cache = new ActiveDealsResponseCache(new ObjectMapper(), 1024);
+        var snapshot = DealSnapshot.empty();
+
+        // when the same minute is requested twice
+        byte[] first = cache.get(snapshot, 600, emptyResponse());
+        byte[] second = cache.get(snapshot, 600, emptyResponse());
+
+        // then the response is rendered once and served from the cache afterwards
+        assertThat(new String(first, StandardCharsets.UTF_8)).isEqualTo(EMPTY_RESPONSE);
+        assertThat(second).isSameAs(first);
+        assertThat(renders).hasValue(1);
+        assertThat(cache.getHits()).isEqualTo(1);
+        assertThat(cache.getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDrop_CachedResponses_OnNewSnapshot() {
+        // given two cached minutes of a snapshot
+        var cache = new ActiveDealsResponseCache(new ObjectMapper(), 1024);
+        var snapshot = DealSnapshot.empty();
+        cache.get(snapshot, 600, emptyResponse());
+        cache.get(snapshot, 601, emptyResponse());
+
+        // when a minute is requested from another snapshot
+        cache.get(DealSnapshot.of(Collections.emptyList()), 600, emptyResponse());
+
+        // then the responses of the previous snapshot are evicted
+        assertThat(renders).hasValue(3);
+        assertThat(cache.getEvictions()).isEqualTo(2);
+        assertThat(cache.getCachedBytes()).isEqualTo(EMPTY_RESPONSE.length());
+    }
+
+    @Test
+    void shouldEvict_Responses_OverBudget() {
+        // given a budget of two responses
+        var cache = new ActiveDealsResponseCache(new ObjectMapper(), 2L * EMPTY_RESPONSE.length());
+        var snapshot = DealSnapshot.empty();
+
+        // when three minutes are requested
+        cache.get(snapshot, 0, emptyResponse());
+        cache.get(snapshot, 1, emptyResponse());
+        cache.get(snapshot, 2, emptyResponse());
+
+        // then the oldest slot is evicted to stay within the budget
+        assertThat(cache.getEvictions()).isEqualTo(1);
+        assertThat(cache.getCachedBytes()).isEqualTo(2L * EMPTY_RESPONSE.length());
+
+        cache.get(snapshot, 0, emptyResponse());
+        assertThat(renders).hasValue(4);
+    }
+
+    private Supplier<ActiveDealsResponse> emptyResponse() {
+        return () -> {
+            renders.incrementAndGet();
+            return new ActiveDealsResponse(Collections.emptyList());
+        };
+    }
+
+}
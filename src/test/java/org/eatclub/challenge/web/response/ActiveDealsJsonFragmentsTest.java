@@ -0,0 +1,83 @@
+package org.eatclub.challenge.web.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.eatclub.challenge.common.MinuteOfDay;
+import org.eatclub.challenge.domain.deal.DealSnapshot;
+import org.eatclub.challenge.domain.restaurant.dto.DealDto;
+import org.eatclub.challenge.domain.restaurant.dto.RestaurantDto;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ActiveDealsJsonFragmentsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldWrite_TheSerialisedResponse_ForEveryMinuteOfTheDay() throws JsonProcessingException {
+        // given values to escape, and missing values
+        var snapshot = DealSnapshot.of(List.of(
+                restaurant("r1", "Chez \"Léa\"", deal("d1", "10:00", "12:00"), deal("d2", "11:00", "13:00")),
+                restaurant("r2", null, deal("d3", "09:00", "11:30"), deal("d4", "12:30", "14:00")),
+                restaurant("r3", "Kekou\n", deal("d5", "11:15", "11:45"))
+        ));
+
+        // when
+        var fragments = ActiveDealsJsonFragments.of(snapshot, null);
+
+        // then
+        assertSameResponses(fragments, snapshot);
+    }
+
+    @Test
+    void shouldReuse_TheFragmentsOfUnchangedDeals() throws JsonProcessingException {
+        // given
+        var previous = DealSnapshot.of(List.of(
+                restaurant("r1", "Kekou", deal("d1", "10:00", "12:00")),
+                restaurant("r2", "Masala", deal("d2", "11:00", "13:00")),
+                restaurant("r3", "Ramen", deal("d3", "18:00", "19:00"))
+        ));
+        var previousFragments = ActiveDealsJsonFragments.of(previous, null);
+
+        // when r2 changes, and r3 moves before r1
+        var snapshot = DealSnapshot.of(List.of(
+                restaurant("r3", "Ramen", deal("d3", "18:00", "19:00")),
+                restaurant("r1", "Kekou", deal("d1", "10:00", "12:00")),
+                restaurant("r2", "Masala Bar", deal("d2", "11:00", "14:00"))
+        ), previous);
+        var fragments = ActiveDealsJsonFragments.of(snapshot, previousFragments);
+
+        // then
+        assertThat(fragments.isOf(snapshot)).isTrue();
+        assertThat(fragments.isOf(previous)).isFalse();
+        assertSameResponses(fragments, snapshot);
+    }
+
+    private void assertSameResponses(ActiveDealsJsonFragments fragments, DealSnapshot snapshot)
+            throws JsonProcessingException {
+        for (int minute = 0; minute < MinuteOfDay.MINUTES_PER_DAY; minute++) {
+            byte[] expected = objectMapper.writeValueAsBytes(new ActiveDealsResponse.Builder()
+                    .withActiveDeals(snapshot.getActiveDeals(minute))
+                    .build());
+
+            var json = fragments.response(snapshot.getActiveOrdinals(minute));
+
+            assertThat(new String(json.toByteArray())).as("minute %d", minute).isEqualTo(new String(expected));
+            assertThat(json.getContentLength()).isEqualTo(expected.length);
+        }
+    }
+
+    private static RestaurantDto restaurant(String objectId, String name, DealDto... deals) {
+        return new RestaurantDto(objectId, name, "1 Main St", "Melbourne", List.of("Thai"), null,
+                LocalTime.of(8, 0), LocalTime.of(22, 0), List.of(deals));
+    }
+
+    private static DealDto deal(String objectId, String start, String end) {
+        return new DealDto(objectId, "50", "true", "false", "5", null, null, LocalTime.parse(start), LocalTime.parse(end));
+    }
+
+}